@@ -0,0 +1,51 @@
+package org.ostad._3_assignemnt;
+
+import org.ostad._3_assignemnt.replica.ContactColumnStore;
+import org.ostad._3_assignemnt.search.NameSearchIndex;
+import org.ostad._3_assignemnt.statistics.CategoryCounters;
+import org.ostad._3_assignemnt.statistics.ContactTimelineRollup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Starts the application without a web server against its own in-memory H2 database
+ * and seeds it with a synthetic contact table of the requested size.
+ */
+public final class BenchmarkDatabase {
+
+    public static final int CATEGORIES = 10;
+
+    private BenchmarkDatabase() {
+    }
+
+    public static ConfigurableApplicationContext start(int rows, String... properties) {
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(Application.class)
+                .web(WebApplicationType.NONE)
+                .properties("spring.datasource.url=jdbc:h2:mem:bench" + rows + ";DB_CLOSE_DELAY=-1",
+                        "logging.level.root=WARN")
+                .properties(properties)
+                .run();
+        seed(context.getBean(JdbcTemplate.class), rows);
+        context.getBean(NameSearchIndex.class).rebuild();
+        context.getBean(CategoryCounters.class).rebuild();
+        context.getBean(ContactTimelineRollup.class).rebuild();
+        context.getBeanProvider(ContactColumnStore.class).ifAvailable(ContactColumnStore::rebuild);
+        return context;
+    }
+
+    /**
+     * Inserts {@code rows} contacts spread over {@link #CATEGORIES} categories, half of them active,
+     * created one minute apart going back from now. Email {@code contactN@domainM.example} is unique.
+     */
+    public static void seed(JdbcTemplate jdbcTemplate, int rows) {
+        jdbcTemplate.update("DELETE FROM contacts");
+        jdbcTemplate.update("INSERT INTO contacts (id, first_name, last_name, phone_no, email, is_active, " +
+                "category, creation_date, email_domain) SELECT NEXT VALUE FOR contacts_seq, 'First' || X, 'Last' || X, " +
+                "'0170' || X, 'contact' || X || '@domain' || MOD(X, 100) || '.example', MOD(X, 2) = 0, " +
+                "'cat' || MOD(X, " + CATEGORIES + "), DATEADD('MINUTE', -X, LOCALTIMESTAMP), " +
+                "'domain' || MOD(X, 100) || '.example' " +
+                "FROM SYSTEM_RANGE(1, ?)", rows);
+    }
+}
@@ -0,0 +1,73 @@
+package org.ostad._3_assignemnt.concurrency;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.ostad._3_assignemnt.BenchmarkDatabase;
+import org.ostad._3_assignemnt.dto.ContactDTO;
+import org.ostad._3_assignemnt.service.ContactService;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * /categories through the single IN query against the per-category scatter-gather path, over the
+ * number of requested categories and table size. Where scatter starts winning is the crossover to
+ * use for {@code contacts.scatter.min-rows} (each category holds rows / 20 active contacts).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ScatterGatherBenchmark {
+
+    @Param({"10000", "100000", "1000000"})
+    private int rows;
+
+    @Param({"2", "5", "10"})
+    private int categoryCount;
+
+    @Param({"single", "scatter"})
+    private String path;
+
+    private ConfigurableApplicationContext context;
+    private ContactService contactService;
+    private List<String> categories;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        long minRows = "scatter".equals(path) ? 0 : Long.MAX_VALUE;
+        context = BenchmarkDatabase.start(rows,
+                "contacts.scatter.min-rows=" + minRows,
+                "contacts.bulkhead.scan.max-concurrent=64");
+        contactService = context.getBean(ContactService.class);
+        categories = IntStream.range(0, categoryCount)
+                .mapToObj(i -> "cat" + i)
+                .collect(Collectors.toList());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<ContactDTO> contactsByCategories() {
+        return contactService.getContactsByCategories(categories);
+    }
+}
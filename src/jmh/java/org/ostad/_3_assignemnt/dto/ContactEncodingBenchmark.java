@@ -0,0 +1,91 @@
+package org.ostad._3_assignemnt.dto;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.ostad._3_assignemnt.config.BinaryEncodingConfig;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Encoding a List&lt;ContactDTO&gt; response body (/active, /categories) as JSON, Smile and CBOR, each
+ * with the ObjectMapper the application's message converter uses, with and without the gzip step
+ * server.compression adds. Allocation per operation comes from the gc profiler (gc.alloc.rate.norm);
+ * payload sizes are printed at the end of each trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ContactEncodingBenchmark {
+
+    @Param({"10000", "100000"})
+    private int rows;
+
+    @Param({"JSON", "SMILE", "CBOR"})
+    private String format;
+
+    private ObjectMapper objectMapper;
+    private List<ContactDTO> contacts;
+
+    @Setup
+    public void setUp() {
+        BinaryEncodingConfig config = new BinaryEncodingConfig();
+        objectMapper = switch (format) {
+            case "SMILE" -> config.smileHttpMessageConverter(Jackson2ObjectMapperBuilder.json()).getObjectMapper();
+            case "CBOR" -> config.cborHttpMessageConverter(Jackson2ObjectMapperBuilder.json()).getObjectMapper();
+            // Boot's JSON mapper writes dates as ISO strings
+            default -> Jackson2ObjectMapperBuilder.json()
+                    .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                    .build();
+        };
+        contacts = new ArrayList<>(rows);
+        LocalDateTime now = LocalDateTime.now();
+        for (long i = 0; i < rows; i++) {
+            contacts.add(new ContactDTO(i, "First" + i, "Last" + i, "0170" + i,
+                    "contact" + i + "@domain" + i % 100 + ".example", i % 2 == 0, "cat" + i % 10,
+                    now.minusMinutes(i), 0L));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void reportSize() throws IOException {
+        System.out.printf("%n%s, %d rows: %,d bytes, %,d bytes gzipped%n",
+                format, rows, serialize().length, serializeCompressed().length);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws IOException {
+        return objectMapper.writeValueAsBytes(contacts);
+    }
+
+    @Benchmark
+    public byte[] serializeCompressed() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(bytes)) {
+            objectMapper.writeValue(gzip, contacts);
+        }
+        return bytes.toByteArray();
+    }
+}
@@ -0,0 +1,92 @@
+package org.ostad._3_assignemnt.replica;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.ostad._3_assignemnt.BenchmarkDatabase;
+import org.ostad._3_assignemnt.dto.ContactDTO;
+import org.ostad._3_assignemnt.repository.ContactRepository;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The reads served by ContactColumnStore against the DTO queries they replace.
+ * Run with {@code -prof gc} to see the allocation difference per call.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ContactColumnStoreBenchmark {
+
+    @Param({"100000", "1000000"})
+    private int rows;
+
+    private ConfigurableApplicationContext context;
+    private ContactRepository contactRepository;
+    private ContactColumnStore contactColumnStore;
+    private TransactionTemplate readOnly;
+    private LocalDateTime lastHour;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkDatabase.start(rows, "contacts.replica.enabled=true");
+        contactRepository = context.getBean(ContactRepository.class);
+        contactColumnStore = context.getBean(ContactColumnStore.class);
+        readOnly = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnly.setReadOnly(true);
+        lastHour = LocalDateTime.now().minusHours(1);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<ContactDTO> recentFromDatabase() {
+        return readOnly.execute(status -> contactRepository.findRecentDtos(lastHour));
+    }
+
+    @Benchmark
+    public List<ContactDTO> recentFromColumnStore() {
+        return contactColumnStore.findCreatedSince(lastHour);
+    }
+
+    @Benchmark
+    public List<ContactDTO> categoryAndStatusFromDatabase() {
+        return readOnly.execute(status -> contactRepository.findDtosByCategoryAndIsActive("cat2", true));
+    }
+
+    @Benchmark
+    public List<ContactDTO> categoryAndStatusFromColumnStore() {
+        return contactColumnStore.findByCategoryAndStatus("cat2", true);
+    }
+
+    @Benchmark
+    public long activeCountFromDatabase() {
+        return readOnly.execute(status -> contactRepository.countActiveContactsByCategory("cat2"));
+    }
+
+    @Benchmark
+    public long activeCountFromColumnStore() {
+        return contactColumnStore.activeCount("cat2");
+    }
+}
@@ -0,0 +1,362 @@
+package org.ostad._3_assignemnt.repository;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.ostad._3_assignemnt.BenchmarkDatabase;
+import org.ostad._3_assignemnt.dto.ContactDTO;
+import org.ostad._3_assignemnt.dto.ContactProjection;
+import org.ostad._3_assignemnt.dto.ContactSearchCriteria;
+import org.ostad._3_assignemnt.dto.DomainCountDTO;
+import org.ostad._3_assignemnt.entity.Contact;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Every read query declared on ContactRepository (and its ContactSearchRepository fragment) against
+ * a seeded H2 table of 10k, 1M and 5M rows. The two write queries, deleteByCategory and
+ * backfillEmailDomains, are left out because they would change the table between iterations, as are
+ * the inherited JpaRepository methods. findByIsActive, findDtosByIsActive, findAllDtos and
+ * findAllActiveProjections return half or all of the table, hence the larger heap. The stream
+ * queries are consumed to the end inside a read-only transaction.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+public class ContactRepositoryBenchmark {
+
+    @Param({"10000", "1000000", "5000000"})
+    private int rows;
+
+    private ConfigurableApplicationContext context;
+    private ContactRepository contactRepository;
+    private TransactionTemplate readOnly;
+    private long id;
+    private ContactDTO cursor;
+    private List<String> emails;
+    private LocalDateTime lastHour;
+    private LocalDateTime lastDay;
+    private Pageable firstPage;
+    private String email;
+    private ContactSearchCriteria searchCriteria;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkDatabase.start(rows);
+        contactRepository = context.getBean(ContactRepository.class);
+        lastHour = LocalDateTime.now().minusHours(1);
+        lastDay = LocalDateTime.now().minusDays(1);
+        firstPage = PageRequest.of(0, 20, Sort.by(Sort.Direction.DESC, "creationDate"));
+        searchCriteria = new ContactSearchCriteria();
+        searchCriteria.setLastName("12");
+        searchCriteria.setCategory("cat2");
+        searchCriteria.setIsActive(true);
+        email = "contact" + rows / 2 + "@domain" + (rows / 2) % 100 + ".example";
+        // Ids come from contacts_seq (allocation size 50), so look the row up rather than guess its id
+        id = context.getBean(JdbcTemplate.class).queryForObject(
+                "SELECT id FROM contacts WHERE email = ?", Long.class, email);
+        List<ContactDTO> firstSlice = contactRepository.findActiveContactsByCategoryFirst(
+                "cat4", PageRequest.of(0, 20)).getContent();
+        cursor = firstSlice.get(firstSlice.size() - 1);
+        emails = List.of(email, "contact1@domain1.example", "missing@nowhere.example");
+        readOnly = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnly.setReadOnly(true);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Optional<Contact> findById() {
+        return contactRepository.findById(id);
+    }
+
+    @Benchmark
+    public Optional<Contact> findContactById() {
+        return contactRepository.findContactById(id);
+    }
+
+    @Benchmark
+    public Optional<Contact> findByEmail() {
+        return contactRepository.findByEmail(email);
+    }
+
+    @Benchmark
+    public boolean existsByEmail() {
+        return contactRepository.existsByEmail(email);
+    }
+
+    @Benchmark
+    public Optional<Contact> findByPhoneNo() {
+        return contactRepository.findByPhoneNo("0170" + rows / 2);
+    }
+
+    @Benchmark
+    public List<Contact> findByFirstName() {
+        return contactRepository.findByFirstName("First" + rows / 2);
+    }
+
+    @Benchmark
+    public List<Contact> findByLastName() {
+        return contactRepository.findByLastName("Last" + rows / 2);
+    }
+
+    @Benchmark
+    public List<Contact> findByCategory() {
+        return contactRepository.findByCategory("cat3");
+    }
+
+    @Benchmark
+    public List<Contact> findByIsActive() {
+        return contactRepository.findByIsActive(true);
+    }
+
+    @Benchmark
+    public List<Contact> findByCategoryAndIsActive() {
+        return contactRepository.findByCategoryAndIsActive("cat4", true);
+    }
+
+    @Benchmark
+    public List<Contact> findByNameContainingIgnoreCase() {
+        return contactRepository.findByFirstNameContainingIgnoreCaseOrLastNameContainingIgnoreCase("st12", "st12");
+    }
+
+    @Benchmark
+    public List<Contact> findByCategoryOrderByCreationDateDesc() {
+        return contactRepository.findByCategoryOrderByCreationDateDesc("cat3");
+    }
+
+    @Benchmark
+    public List<String> findExistingEmails() {
+        return contactRepository.findExistingEmails(emails);
+    }
+
+    @Benchmark
+    public List<Contact> findByCategories() {
+        return contactRepository.findByCategories(List.of("cat2", "cat4"));
+    }
+
+    @Benchmark
+    public List<Contact> findByCreationDateAfter() {
+        return contactRepository.findByCreationDateAfter(lastHour);
+    }
+
+    @Benchmark
+    public List<Contact> findByCreationDateBetween() {
+        return contactRepository.findByCreationDateBetween(lastDay, lastHour);
+    }
+
+    @Benchmark
+    public List<Contact> findRecentContacts() {
+        return contactRepository.findRecentContacts(lastHour);
+    }
+
+    @Benchmark
+    public long countByCategory() {
+        return contactRepository.countByCategory("cat3");
+    }
+
+    @Benchmark
+    public long countActiveContactsByCategory() {
+        return contactRepository.countActiveContactsByCategory("cat4");
+    }
+
+    @Benchmark
+    public List<Object[]> getContactCountByCategory() {
+        return contactRepository.getContactCountByCategory();
+    }
+
+    @Benchmark
+    public Page<Contact> findActiveContactsByCategory() {
+        return contactRepository.findActiveContactsByCategory("cat4", firstPage);
+    }
+
+    @Benchmark
+    public Slice<Contact> findActiveContactsByCategoryFirst() {
+        return contactRepository.findActiveContactsByCategoryFirst("cat4", PageRequest.of(0, 20));
+    }
+
+    @Benchmark
+    public Slice<ContactDTO> findActiveContactsByCategoryAfter() {
+        return contactRepository.findActiveContactsByCategoryAfter("cat4", cursor.getCreationDate(), cursor.getId(),
+                PageRequest.of(0, 20));
+    }
+
+    @Benchmark
+    public List<DomainCountDTO> countByEmailDomain() {
+        return contactRepository.countByEmailDomain();
+    }
+
+    @Benchmark
+    public List<ContactProjection> findAllActiveProjections() {
+        return contactRepository.findAllActiveProjections();
+    }
+
+    @Benchmark
+    public Page<Contact> searchByName() {
+        return contactRepository.searchByName("st12", firstPage);
+    }
+
+    @Benchmark
+    public Page<ContactDTO> searchDtos() {
+        return contactRepository.searchDtos(ContactSpecifications.matching(searchCriteria), firstPage);
+    }
+
+    @Benchmark
+    public Slice<ContactDTO> searchDtoSlice() {
+        return contactRepository.searchDtoSlice(ContactSpecifications.matching(searchCriteria), 20);
+    }
+
+    @Benchmark
+    public Page<Map<String, Object>> searchFields() {
+        return contactRepository.searchFields(ContactSpecifications.matching(searchCriteria),
+                List.of("id", "email"), firstPage);
+    }
+
+    @Benchmark
+    public List<ContactProjection> findByCategoryProjection() {
+        return contactRepository.findByCategoryProjection("cat7");
+    }
+
+    @Benchmark
+    public List<Contact> findByEmailDomain() {
+        return contactRepository.findByEmailDomain("domain42.example");
+    }
+
+    // ============= DTO Projection Queries =============
+
+    @Benchmark
+    public List<ContactDTO> findAllDtos() {
+        return contactRepository.findAllDtos();
+    }
+
+    @Benchmark
+    public List<ContactDTO> findDtosByFirstName() {
+        return contactRepository.findDtosByFirstName("First" + rows / 2);
+    }
+
+    @Benchmark
+    public List<ContactDTO> findDtosByLastName() {
+        return contactRepository.findDtosByLastName("Last" + rows / 2);
+    }
+
+    @Benchmark
+    public List<ContactDTO> findDtosByCategory() {
+        return contactRepository.findDtosByCategory("cat3");
+    }
+
+    @Benchmark
+    public List<ContactDTO> findDtosByIsActive() {
+        return contactRepository.findDtosByIsActive(true);
+    }
+
+    @Benchmark
+    public List<ContactDTO> findDtosByCategoryAndIsActive() {
+        return contactRepository.findDtosByCategoryAndIsActive("cat4", true);
+    }
+
+    @Benchmark
+    public List<ContactDTO> findDtosCreatedAfter() {
+        return contactRepository.findDtosCreatedAfter(lastHour);
+    }
+
+    @Benchmark
+    public List<ContactDTO> findDtosCreatedBetween() {
+        return contactRepository.findDtosCreatedBetween(lastDay, lastHour);
+    }
+
+    @Benchmark
+    public List<ContactDTO> findDtosByCategories() {
+        return contactRepository.findDtosByCategories(List.of("cat2", "cat4"));
+    }
+
+    @Benchmark
+    public List<ContactDTO> findActiveDtosByCategoryNewestFirst() {
+        return contactRepository.findActiveDtosByCategoryNewestFirst("cat4");
+    }
+
+    @Benchmark
+    public List<ContactDTO> findRecentDtos() {
+        return contactRepository.findRecentDtos(lastHour);
+    }
+
+    @Benchmark
+    public List<ContactDTO> findDtosByEmailDomain() {
+        return contactRepository.findDtosByEmailDomain("domain42.example");
+    }
+
+    @Benchmark
+    public Page<ContactDTO> findActiveDtosByCategory() {
+        return contactRepository.findActiveDtosByCategory("cat4", firstPage);
+    }
+
+    // ============= Streaming Queries =============
+
+    @Benchmark
+    public long streamAll() {
+        return count(contactRepository::streamAll);
+    }
+
+    @Benchmark
+    public long streamByIsActive() {
+        return count(() -> contactRepository.streamByIsActive(true));
+    }
+
+    @Benchmark
+    public long streamByCategory() {
+        return count(() -> contactRepository.streamByCategory("cat3"));
+    }
+
+    @Benchmark
+    public long streamByCreationDateBetween() {
+        return count(() -> contactRepository.streamByCreationDateBetween(lastDay, lastHour));
+    }
+
+    @Benchmark
+    public long streamByEmailDomain() {
+        return count(() -> contactRepository.streamByEmailDomain("domain42.example"));
+    }
+
+    @Benchmark
+    public long streamNames() {
+        return count(contactRepository::streamNames);
+    }
+
+    private long count(Supplier<Stream<?>> query) {
+        return readOnly.execute(status -> {
+            try (Stream<?> results = query.get()) {
+                return results.count();
+            }
+        });
+    }
+}
@@ -0,0 +1,83 @@
+package org.ostad._3_assignemnt.search;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.ostad._3_assignemnt.BenchmarkDatabase;
+import org.ostad._3_assignemnt.dto.ContactDTO;
+import org.ostad._3_assignemnt.entity.Contact;
+import org.ostad._3_assignemnt.repository.ContactRepository;
+import org.ostad._3_assignemnt.service.ContactService;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Name search through the trigram index against the LIKE query it replaces. "st12" goes through
+ * the trigram postings and matches about 1% of the seeded contacts. "l9" and "la" are type-ahead
+ * lookups in the word-prefix postings: no seeded name starts with "l9", while every one starts
+ * with "la", so "la" is the worst case (the whole table is ranked). indexSearch is the lookup
+ * alone; indexPage and likePage also load the first page of 20 contacts.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class NameSearchBenchmark {
+
+    @Param({"10000", "100000", "1000000"})
+    private int rows;
+
+    @Param({"st12", "l9", "la"})
+    private String query;
+
+    private ConfigurableApplicationContext context;
+    private NameSearchIndex nameSearchIndex;
+    private ContactService contactService;
+    private ContactRepository contactRepository;
+    private Pageable firstPage;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkDatabase.start(rows, "contacts.bulkhead.scan.max-concurrent=64");
+        nameSearchIndex = context.getBean(NameSearchIndex.class);
+        contactService = context.getBean(ContactService.class);
+        contactRepository = context.getBean(ContactRepository.class);
+        firstPage = PageRequest.of(0, 20);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public long[] indexSearch() {
+        return nameSearchIndex.search(query);
+    }
+
+    @Benchmark
+    public Page<ContactDTO> indexPage() {
+        return contactService.searchByName(query, firstPage);
+    }
+
+    @Benchmark
+    public Page<Contact> likePage() {
+        return contactRepository.searchByName(query, firstPage);
+    }
+}
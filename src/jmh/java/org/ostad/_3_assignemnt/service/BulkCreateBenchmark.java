@@ -0,0 +1,79 @@
+package org.ostad._3_assignemnt.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.ostad._3_assignemnt.BenchmarkDatabase;
+import org.ostad._3_assignemnt.dto.BulkResultDTO;
+import org.ostad._3_assignemnt.dto.ContactDTO;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Inserting {@code batch} contacts with one POST /bulk call against {@code batch} single
+ * createContact calls (one transaction each). Both score the time for the whole batch, so
+ * singleCreates / bulkCreate is the speed-up of the bulk endpoint.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class BulkCreateBenchmark {
+
+    @Param({"100", "1000"})
+    private int batch;
+
+    private ConfigurableApplicationContext context;
+    private ContactService contactService;
+    private long next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkDatabase.start(10_000, "contacts.bulkhead.bulk.max-concurrent=64");
+        contactService = context.getBean(ContactService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public BulkResultDTO bulkCreate() {
+        return contactService.bulkCreateContacts(newContacts());
+    }
+
+    @Benchmark
+    public void singleCreates(Blackhole blackhole) {
+        for (ContactDTO contact : newContacts()) {
+            blackhole.consume(contactService.createContact(contact));
+        }
+    }
+
+    // Unique emails, so every row is inserted
+    private List<ContactDTO> newContacts() {
+        List<ContactDTO> contacts = new ArrayList<>(batch);
+        for (int i = 0; i < batch; i++) {
+            long n = next++;
+            contacts.add(new ContactDTO(null, "Bulk" + n, "Bench" + n, "0170" + n,
+                    "bulk" + n + "@bench.example", true, "cat" + (n % BenchmarkDatabase.CATEGORIES), null, null));
+        }
+        return contacts;
+    }
+}
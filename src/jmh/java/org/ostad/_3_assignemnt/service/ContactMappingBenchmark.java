@@ -0,0 +1,55 @@
+package org.ostad._3_assignemnt.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.ostad._3_assignemnt.dto.ContactDTO;
+import org.ostad._3_assignemnt.entity.Contact;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ContactMappingBenchmark {
+
+    private final ContactService contactService = new ContactService();
+    private Contact contact;
+    private ContactDTO dto;
+
+    @Setup
+    public void setUp() {
+        contact = new Contact();
+        contact.setId(42L);
+        contact.setFirstName("Ada");
+        contact.setLastName("Lovelace");
+        contact.setPhoneNo("01700000042");
+        contact.setEmail("ada@example.com");
+        contact.setIsActive(true);
+        contact.setCategory("work");
+        contact.setCreationDate(LocalDateTime.of(2024, 1, 1, 12, 0));
+        contact.setVersion(3L);
+        dto = contactService.convertToDTO(contact);
+    }
+
+    @Benchmark
+    public ContactDTO convertToDTO() {
+        return contactService.convertToDTO(contact);
+    }
+
+    @Benchmark
+    public Contact convertToEntity() {
+        return contactService.convertToEntity(dto);
+    }
+}
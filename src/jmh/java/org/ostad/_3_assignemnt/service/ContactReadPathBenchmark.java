@@ -0,0 +1,109 @@
+package org.ostad._3_assignemnt.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.ostad._3_assignemnt.BenchmarkDatabase;
+import org.ostad._3_assignemnt.dto.ContactDTO;
+import org.ostad._3_assignemnt.dto.ContactSearchCriteria;
+import org.ostad._3_assignemnt.repository.ContactRepository;
+import org.ostad._3_assignemnt.repository.ContactSpecifications;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Entity hydration in a read-write transaction (the previous read path) against the DTO
+ * constructor queries in a read-only transaction, for /active, /category/{category} and /search/advanced.
+ * Run with {@code -prof gc} to compare gc.alloc.rate.norm (bytes allocated per request).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ContactReadPathBenchmark {
+
+    @Param({"10000", "100000"})
+    private int rows;
+
+    private ConfigurableApplicationContext context;
+    private ContactService contactService;
+    private ContactRepository contactRepository;
+    private TransactionTemplate readWrite;
+    private Pageable firstPage;
+    private ContactSearchCriteria searchCriteria;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkDatabase.start(rows, "contacts.bulkhead.scan.max-concurrent=64");
+        contactService = context.getBean(ContactService.class);
+        contactRepository = context.getBean(ContactRepository.class);
+        readWrite = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        firstPage = PageRequest.of(0, 100, Sort.by(Sort.Direction.DESC, "creationDate"));
+        searchCriteria = new ContactSearchCriteria();
+        searchCriteria.setLastName("1");
+        searchCriteria.setCategory("cat1");
+        searchCriteria.setIsActive(true);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<ContactDTO> activeEntities() {
+        return readWrite.execute(status -> contactRepository.findByIsActive(true).stream()
+                .map(contactService::convertToDTO)
+                .collect(Collectors.toList()));
+    }
+
+    @Benchmark
+    public List<ContactDTO> activeDtos() {
+        return contactService.getActiveContacts();
+    }
+
+    @Benchmark
+    public List<ContactDTO> categoryEntities() {
+        return readWrite.execute(status -> contactRepository.findByCategory("cat3").stream()
+                .map(contactService::convertToDTO)
+                .collect(Collectors.toList()));
+    }
+
+    @Benchmark
+    public List<ContactDTO> categoryDtos() {
+        return contactService.getContactsByCategory("cat3");
+    }
+
+    @Benchmark
+    public Page<ContactDTO> searchEntities() {
+        return readWrite.execute(status -> contactRepository.findAll(
+                        ContactSpecifications.matching(searchCriteria), firstPage)
+                .map(contactService::convertToDTO));
+    }
+
+    @Benchmark
+    public Page<ContactDTO> searchDtos() {
+        return contactService.searchContacts(searchCriteria, firstPage);
+    }
+}
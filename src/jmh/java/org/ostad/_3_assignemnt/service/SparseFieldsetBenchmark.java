@@ -0,0 +1,87 @@
+package org.ostad._3_assignemnt.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.ostad._3_assignemnt.BenchmarkDatabase;
+import org.ostad._3_assignemnt.dto.ContactSearchCriteria;
+import org.ostad._3_assignemnt.repository.ContactSpecifications;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Full ContactDTO rows against sparse fieldsets (fields=...) for /active and a /search/advanced page,
+ * measured through the query and the JSON encoding of the response body. {@code ALL} is the existing
+ * DTO path; allocation per request is gc.alloc.rate.norm.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class SparseFieldsetBenchmark {
+
+    @Param({"10000", "100000"})
+    private int rows;
+
+    @Param({"ALL", "id,email", "id,firstName,lastName,email"})
+    private String fields;
+
+    private ConfigurableApplicationContext context;
+    private ContactService contactService;
+    private ObjectMapper objectMapper;
+    private Set<String> selected;
+    private ContactSearchCriteria active;
+    private ContactSearchCriteria search;
+    private Pageable firstPage;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkDatabase.start(rows, "contacts.bulkhead.scan.max-concurrent=64");
+        contactService = context.getBean(ContactService.class);
+        objectMapper = context.getBean(ObjectMapper.class);
+        selected = "ALL".equals(fields) ? null : ContactSpecifications.fields(fields);
+        active = new ContactSearchCriteria();
+        active.setIsActive(true);
+        search = new ContactSearchCriteria();
+        search.setLastName("1");
+        search.setCategory("cat2");
+        firstPage = PageRequest.of(0, 100, ContactSpecifications.sort("creationDate", Sort.Direction.DESC));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public byte[] active() throws Exception {
+        return objectMapper.writeValueAsBytes(selected == null
+                ? contactService.getActiveContacts()
+                : contactService.getContactFields(active, selected, Sort.unsorted()));
+    }
+
+    @Benchmark
+    public byte[] searchPage() throws Exception {
+        return objectMapper.writeValueAsBytes(selected == null
+                ? contactService.searchContacts(search, firstPage)
+                : contactService.searchContactFields(search, selected, firstPage));
+    }
+}
@@ -0,0 +1,98 @@
+package org.ostad._3_assignemnt.startup;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.ostad._3_assignemnt.Application;
+import org.ostad._3_assignemnt.BenchmarkDatabase;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time from launch until the application can serve, for a fresh in-memory database that has to be
+ * reseeded versus reopening an existing memory-mapped store (the 'mapped' profile), with the
+ * in-process warm-ups run inline or in the background.
+ * <p>
+ * The in-memory case seeds with one INSERT ... SELECT, a lower bound for reloading fixtures through JPA.
+ * Reopened files are usually still in the OS page cache, so the mapped numbers are warm restarts.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 5)
+@Fork(1)
+public class StartupBenchmark {
+
+    @Param({"100000", "1000000"})
+    private int rows;
+
+    private Path storeDir;
+    private String mappedUrl;
+    private int run;
+    private ConfigurableApplicationContext context;
+
+    @Setup(Level.Trial)
+    public void createStore() throws IOException {
+        storeDir = Files.createTempDirectory("contacts-startup");
+        mappedUrl = "jdbc:h2:nioMapped:" + storeDir.resolve("contactdb");
+        BenchmarkDatabase.start(rows, "spring.datasource.url=" + mappedUrl).close();
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteStore() throws IOException {
+        FileSystemUtils.deleteRecursively(storeDir);
+    }
+
+    @TearDown(Level.Invocation)
+    public void stop() {
+        if (context != null) {
+            context.close();
+            context = null;
+        }
+    }
+
+    @Benchmark
+    public ConfigurableApplicationContext reseedInMemory() {
+        context = BenchmarkDatabase.start(rows, "spring.datasource.url=jdbc:h2:mem:startup" + run++);
+        return context;
+    }
+
+    @Benchmark
+    public ConfigurableApplicationContext openMappedStore() {
+        context = open(false);
+        return context;
+    }
+
+    @Benchmark
+    public ConfigurableApplicationContext openMappedStoreAsyncWarmup() {
+        context = open(true);
+        return context;
+    }
+
+    private ConfigurableApplicationContext open(boolean asyncWarmup) {
+        return new SpringApplicationBuilder(Application.class)
+                .web(WebApplicationType.NONE)
+                .properties("spring.datasource.url=" + mappedUrl,
+                        "contacts.warmup.async=" + asyncWarmup,
+                        "logging.level.root=WARN")
+                .run();
+    }
+}
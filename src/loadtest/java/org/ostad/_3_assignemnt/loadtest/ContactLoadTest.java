@@ -0,0 +1,281 @@
+package org.ostad._3_assignemnt.loadtest;
+
+import org.ostad._3_assignemnt.Application;
+import org.ostad._3_assignemnt.replica.ContactColumnStore;
+import org.ostad._3_assignemnt.search.NameSearchIndex;
+import org.ostad._3_assignemnt.statistics.CategoryCounters;
+import org.ostad._3_assignemnt.statistics.ContactTimelineRollup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Replays a fixed mix of ContactController calls against the application started with a given
+ * profile and a fresh file-mode H2 database, then reports throughput and latency per call.
+ * <p>
+ * Run through Gradle ({@code ./gradlew loadTestDefault loadTestProd}); tune with
+ * {@code -Ploadtest.rows=..., -Ploadtest.clients=..., -Ploadtest.duration=60s, -Ploadtest.warmup=15s}.
+ * Reports are written to build/reports/loadtest/&lt;profile&gt;.txt.
+ */
+public final class ContactLoadTest {
+
+    private static final int CATEGORIES = 10;
+    private static final int DOMAINS = 100;
+
+    /** The request mix; weights add up to 100. */
+    enum Operation {
+        GET_BY_ID(40),
+        GET_BY_EMAIL(10),
+        CATEGORY_KEYSET_PAGE(10),
+        ADVANCED_SEARCH(10),
+        CATEGORY_COUNTS(5),
+        EMAIL_DOMAIN(5),
+        PATCH(10),
+        CREATE(10);
+
+        private final int weight;
+
+        Operation(int weight) {
+            this.weight = weight;
+        }
+    }
+
+    private final String profile;
+    private final int rows;
+    private final int clients;
+    private final Duration warmup;
+    private final Duration duration;
+    private final HttpClient client = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final AtomicLong createdEmails = new AtomicLong();
+    private String baseUrl;
+    private long[] ids;
+
+    private ContactLoadTest(String profile) {
+        this.profile = profile;
+        this.rows = Integer.getInteger("loadtest.rows", 100_000);
+        this.clients = Integer.getInteger("loadtest.clients", 16);
+        this.warmup = Duration.parse("PT" + System.getProperty("loadtest.warmup", "15s"));
+        this.duration = Duration.parse("PT" + System.getProperty("loadtest.duration", "60s"));
+    }
+
+    public static void main(String[] args) throws Exception {
+        new ContactLoadTest(args.length > 0 ? args[0] : "default").run();
+    }
+
+    private void run() throws Exception {
+        Path dataDir = Paths.get("build", "loadtest", profile).toAbsolutePath();
+        FileSystemUtils.deleteRecursively(dataDir);
+        Files.createDirectories(dataDir);
+
+        SpringApplicationBuilder builder = new SpringApplicationBuilder(Application.class)
+                .properties("server.port=0", "logging.level.root=WARN",
+                        "contacts.db.path=" + dataDir.resolve("contactdb"));
+        if ("default".equals(profile)) {
+            builder.properties("spring.datasource.url=jdbc:h2:file:" + dataDir.resolve("contactdb"));
+        } else {
+            builder.profiles(profile);
+        }
+
+        try (ConfigurableApplicationContext context = builder.run()) {
+            baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port") + "/api/contacts";
+            seed(context);
+
+            System.out.printf("Profile '%s': %,d contacts, %d clients, %s warm-up, %s measured%n",
+                    profile, rows, clients, warmup, duration);
+            drive(warmup);
+            Map<Operation, Samples> results = drive(duration);
+
+            String report = report(results);
+            System.out.print(report);
+            Path reportFile = Paths.get("build", "reports", "loadtest", profile + ".txt");
+            Files.createDirectories(reportFile.getParent());
+            Files.writeString(reportFile, report);
+        }
+    }
+
+    private void seed(ConfigurableApplicationContext context) {
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        jdbcTemplate.update("INSERT INTO contacts (id, first_name, last_name, phone_no, email, is_active, " +
+                "category, creation_date, email_domain) SELECT NEXT VALUE FOR contacts_seq, 'First' || X, " +
+                "'Last' || X, '0170' || X, 'contact' || X || '@domain' || MOD(X, " + DOMAINS + ") || '.example', " +
+                "MOD(X, 2) = 0, 'cat' || MOD(X, " + CATEGORIES + "), DATEADD('MINUTE', -X, LOCALTIMESTAMP), " +
+                "'domain' || MOD(X, " + DOMAINS + ") || '.example' FROM SYSTEM_RANGE(1, ?)", rows);
+        // Sequence-assigned ids are not contiguous (pooled allocation), so sample from the real ones
+        ids = jdbcTemplate.queryForList("SELECT id FROM contacts", Long.class).stream()
+                .mapToLong(Long::longValue)
+                .toArray();
+        context.getBean(NameSearchIndex.class).rebuild();
+        context.getBean(CategoryCounters.class).rebuild();
+        context.getBean(ContactTimelineRollup.class).rebuild();
+        context.getBeanProvider(ContactColumnStore.class).ifAvailable(ContactColumnStore::rebuild);
+    }
+
+    // ============= Load generation =============
+
+    // Closed loop: each client sends its next request as soon as the previous one completes
+    private Map<Operation, Samples> drive(Duration length) throws InterruptedException {
+        long deadline = System.nanoTime() + length.toNanos();
+        List<Map<Operation, Samples>> perClient = new ArrayList<>(clients);
+        List<Thread> threads = new ArrayList<>(clients);
+        for (int i = 0; i < clients; i++) {
+            Map<Operation, Samples> samples = new EnumMap<>(Operation.class);
+            perClient.add(samples);
+            Thread thread = new Thread(() -> {
+                while (System.nanoTime() < deadline) {
+                    Operation operation = pick();
+                    long start = System.nanoTime();
+                    boolean ok = call(operation);
+                    samples.computeIfAbsent(operation, o -> new Samples()).add(System.nanoTime() - start, ok);
+                }
+            }, "load-client-" + i);
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        Map<Operation, Samples> merged = new EnumMap<>(Operation.class);
+        for (Map<Operation, Samples> samples : perClient) {
+            samples.forEach((operation, s) -> merged.computeIfAbsent(operation, o -> new Samples()).addAll(s));
+        }
+        merged.values().forEach(s -> s.elapsedNanos = length.toNanos());
+        return merged;
+    }
+
+    private static Operation pick() {
+        int roll = ThreadLocalRandom.current().nextInt(100);
+        for (Operation operation : Operation.values()) {
+            roll -= operation.weight;
+            if (roll < 0) {
+                return operation;
+            }
+        }
+        return Operation.GET_BY_ID;
+    }
+
+    private boolean call(Operation operation) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long x = random.nextLong(1, rows + 1);
+        HttpRequest request = switch (operation) {
+            case GET_BY_ID -> get("/" + ids[random.nextInt(ids.length)]);
+            case GET_BY_EMAIL -> get("/email/contact" + x + "@domain" + x % DOMAINS + ".example");
+            case CATEGORY_KEYSET_PAGE -> get("/category/cat" + x % CATEGORIES + "/active/keyset?size=20");
+            case ADVANCED_SEARCH -> get("/search/advanced?lastName=Last" + x + "&page=0&size=20");
+            case CATEGORY_COUNTS -> get("/statistics/category-counts");
+            case EMAIL_DOMAIN -> get("/email-domain/domain" + x % DOMAINS + ".example");
+            case PATCH -> json("PATCH", "/" + ids[random.nextInt(ids.length)],
+                    "{\"isActive\":" + random.nextBoolean() + "}");
+            case CREATE -> {
+                long n = createdEmails.incrementAndGet();
+                yield json("POST", "", "{\"firstName\":\"Load\",\"lastName\":\"Test" + n + "\",\"phoneNo\":\"0180" + n
+                        + "\",\"email\":\"load" + n + "@loadtest.example\",\"category\":\"cat" + n % CATEGORIES + "\"}");
+            }
+        };
+        try {
+            int status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+            return status < 400;
+        } catch (IOException e) {
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(30))
+                .GET()
+                .build();
+    }
+
+    private HttpRequest json(String method, String path, String body) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/json")
+                .method(method, HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    // ============= Reporting =============
+
+    private String report(Map<Operation, Samples> results) {
+        StringBuilder out = new StringBuilder();
+        out.append(String.format("%nProfile: %s (%,d contacts, %d clients, %s)%n", profile, rows, clients, duration));
+        out.append(String.format("%-22s %10s %10s %8s %9s %9s %9s %9s%n",
+                "operation", "requests", "req/s", "errors", "p50 ms", "p95 ms", "p99 ms", "max ms"));
+        Samples total = new Samples();
+        total.elapsedNanos = duration.toNanos();
+        for (Map.Entry<Operation, Samples> entry : results.entrySet()) {
+            out.append(line(entry.getKey().name(), entry.getValue()));
+            total.addAll(entry.getValue());
+        }
+        out.append(line("TOTAL", total));
+        return out.toString();
+    }
+
+    private static String line(String name, Samples samples) {
+        long[] sorted = Arrays.copyOf(samples.latencies, samples.size);
+        Arrays.sort(sorted);
+        return String.format("%-22s %10d %10.1f %8d %9.2f %9.2f %9.2f %9.2f%n",
+                name, samples.size, samples.size * 1e9 / samples.elapsedNanos, samples.errors,
+                percentile(sorted, 0.50), percentile(sorted, 0.95), percentile(sorted, 0.99),
+                sorted.length == 0 ? 0 : sorted[sorted.length - 1] / 1e6);
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(p * sorted.length) - 1;
+        return sorted[Math.max(index, 0)] / 1e6;
+    }
+
+    /** Latencies (ns) of one operation; written by a single client thread, merged afterwards. */
+    private static final class Samples {
+        private long[] latencies = new long[1024];
+        private int size;
+        private long errors;
+        private long elapsedNanos;
+
+        void add(long nanos, boolean ok) {
+            if (size == latencies.length) {
+                latencies = Arrays.copyOf(latencies, size * 2);
+            }
+            latencies[size++] = nanos;
+            if (!ok) {
+                errors++;
+            }
+        }
+
+        void addAll(Samples other) {
+            if (size + other.size > latencies.length) {
+                latencies = Arrays.copyOf(latencies, Math.max(size + other.size, latencies.length * 2));
+            }
+            System.arraycopy(other.latencies, 0, latencies, size, other.size);
+            size += other.size;
+            errors += other.errors;
+        }
+    }
+}
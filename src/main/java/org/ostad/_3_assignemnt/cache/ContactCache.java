@@ -0,0 +1,159 @@
+package org.ostad._3_assignemnt.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.ostad._3_assignemnt.dto.ContactDTO;
+import org.ostad._3_assignemnt.event.ContactWrite;
+import org.ostad._3_assignemnt.event.ContactsWrittenEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Function;
+
+/**
+ * In-process read-through cache for contact point lookups.
+ * <ul>
+ *     <li>{@code contacts.byId}: id to contact</li>
+ *     <li>{@code contacts.idByEmail}: email (the natural id) to contact id</li>
+ *     <li>{@code contacts.missingEmails}: emails known not to exist, with a short TTL</li>
+ * </ul>
+ * Entries are invalidated after every committed contact write. Each invalidation also bumps a
+ * generation for the key's stripe; a reader only stores what it loaded if the generation it saw before
+ * loading is unchanged, so a value read before a commit cannot be put back after that commit's
+ * invalidation. Cached DTOs are copied on the way in and out, so callers cannot modify them.
+ * Hit, miss and eviction counts are published as Micrometer {@code cache.*} metrics.
+ */
+@Component
+public class ContactCache {
+
+    private static final int STRIPES = 1024;
+
+    private final Cache<Long, ContactDTO> byId;
+    private final Cache<String, Long> idByEmail;
+    private final Cache<String, Boolean> missingEmails;
+    private final AtomicLongArray generations = new AtomicLongArray(STRIPES);
+
+    public ContactCache(@Value("${contacts.cache.maximum-size:100000}") long maximumSize,
+                        @Value("${contacts.cache.expire-after-write:10m}") Duration expireAfterWrite,
+                        @Value("${contacts.cache.negative-expire-after-write:30s}") Duration negativeExpireAfterWrite,
+                        MeterRegistry meterRegistry) {
+        this.byId = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+        this.idByEmail = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+        this.missingEmails = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(negativeExpireAfterWrite)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, byId, "contacts.byId");
+        CaffeineCacheMetrics.monitor(meterRegistry, idByEmail, "contacts.idByEmail");
+        CaffeineCacheMetrics.monitor(meterRegistry, missingEmails, "contacts.missingEmails");
+    }
+
+    // ============= Lookups =============
+
+    public Optional<ContactDTO> getById(Long id, Function<Long, Optional<ContactDTO>> loader) {
+        ContactDTO cached = byId.getIfPresent(id);
+        if (cached != null) {
+            return Optional.of(copy(cached));
+        }
+        long generation = generation(id);
+        Optional<ContactDTO> loaded = loader.apply(id);
+        loaded.ifPresent(contact -> put(contact, id, generation));
+        return loaded;
+    }
+
+    public Optional<ContactDTO> getByEmail(String email, Function<String, Optional<ContactDTO>> loader) {
+        Long id = idByEmail.getIfPresent(email);
+        if (id != null) {
+            ContactDTO cached = byId.getIfPresent(id);
+            if (cached != null && email.equals(cached.getEmail())) {
+                return Optional.of(copy(cached));
+            }
+        } else if (missingEmails.getIfPresent(email) != null) {
+            return Optional.empty();
+        }
+        // Every write bumps the generation of the contact's emails, so the email's alone guards the load
+        long generation = generation(email);
+        Optional<ContactDTO> loaded = loader.apply(email);
+        if (loaded.isPresent()) {
+            put(loaded.get(), email, generation);
+        } else {
+            putIfUnchanged(missingEmails, email, Boolean.TRUE, email, generation);
+        }
+        return loaded;
+    }
+
+    // ============= Invalidation =============
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onContactsWritten(ContactsWrittenEvent event) {
+        // Generations first: a reader that loaded before the commit then finds them changed
+        for (ContactWrite write : event.getWrites()) {
+            bump(write.getId());
+            if (write.getPrevious() != null) {
+                bump(write.getPrevious().getEmail());
+            }
+            if (write.getCurrent() != null) {
+                bump(write.getCurrent().getEmail());
+            }
+        }
+        for (ContactWrite write : event.getWrites()) {
+            byId.invalidate(write.getId());
+            if (write.getPrevious() != null) {
+                idByEmail.invalidate(write.getPrevious().getEmail());
+            }
+            if (write.getCurrent() != null) {
+                idByEmail.invalidate(write.getCurrent().getEmail());
+                missingEmails.invalidate(write.getCurrent().getEmail());
+            }
+        }
+    }
+
+    // ============= Helper Methods =============
+
+    private void put(ContactDTO contact, Object loadedBy, long generation) {
+        putIfUnchanged(byId, contact.getId(), copy(contact), loadedBy, generation);
+        putIfUnchanged(idByEmail, contact.getEmail(), contact.getId(), loadedBy, generation);
+    }
+
+    /**
+     * Stores the value unless the generation moved since the load started. The check runs inside the
+     * entry's compute, so an invalidation racing with it either makes it skip or removes the value after.
+     */
+    private <K, V> void putIfUnchanged(Cache<K, V> cache, K key, V value, Object loadedBy, long generation) {
+        cache.asMap().compute(key, (k, current) -> generation(loadedBy) == generation ? value : current);
+    }
+
+    private long generation(Object key) {
+        return generations.get(stripe(key));
+    }
+
+    private void bump(Object key) {
+        generations.incrementAndGet(stripe(key));
+    }
+
+    private static int stripe(Object key) {
+        int h = key.hashCode();
+        return (h ^ (h >>> 16)) & (STRIPES - 1);
+    }
+
+    private static ContactDTO copy(ContactDTO contact) {
+        return new ContactDTO(contact.getId(), contact.getFirstName(), contact.getLastName(), contact.getPhoneNo(),
+                contact.getEmail(), contact.getIsActive(), contact.getCategory(), contact.getCreationDate(),
+                contact.getVersion());
+    }
+}
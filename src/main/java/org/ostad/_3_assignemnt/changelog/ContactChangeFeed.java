@@ -0,0 +1,151 @@
+package org.ostad._3_assignemnt.changelog;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.ostad._3_assignemnt.dto.ContactChangeDTO;
+import org.ostad._3_assignemnt.dto.ContactDTO;
+import org.ostad._3_assignemnt.entity.ContactChange;
+import org.ostad._3_assignemnt.event.ContactsWrittenEvent;
+import org.ostad._3_assignemnt.repository.ContactChangeRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Reads the contact change log from an offset, either once ({@link #read}) or continuously
+ * ({@link #subscribe}). Subscribers are woken after each committed write and receive the new
+ * changes in batches, in offset order, on a small shared delivery pool.
+ */
+@Component
+public class ContactChangeFeed {
+
+    private static final Logger log = LoggerFactory.getLogger(ContactChangeFeed.class);
+
+    @Autowired
+    private ContactChangeRepository contactChangeRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final Set<Subscription> subscriptions = ConcurrentHashMap.newKeySet();
+    private final ExecutorService deliveryExecutor;
+
+    public ContactChangeFeed(@Value("${contacts.changes.delivery-threads:4}") int deliveryThreads) {
+        AtomicInteger threads = new AtomicInteger();
+        this.deliveryExecutor = Executors.newFixedThreadPool(deliveryThreads, task -> {
+            Thread thread = new Thread(task, "contact-changes-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        subscriptions.clear();
+        deliveryExecutor.shutdownNow();
+    }
+
+    // ============= Reads =============
+
+    public List<ContactChangeDTO> read(long after, int limit) {
+        return contactChangeRepository.findAfter(after, PageRequest.of(0, limit)).stream()
+                .map(this::toDTO)
+                .collect(Collectors.toList());
+    }
+
+    public long lastOffset() {
+        return contactChangeRepository.findLastOffset();
+    }
+
+    /**
+     * Delivers every change after {@code after} to {@code sink}, at most {@code batchSize} at a time,
+     * and keeps delivering new changes as they commit until the subscription is cancelled or the
+     * sink throws.
+     */
+    public Subscription subscribe(long after, int batchSize, Consumer<List<ContactChangeDTO>> sink) {
+        Subscription subscription = new Subscription(after, batchSize, sink);
+        subscriptions.add(subscription);
+        subscription.signal();
+        return subscription;
+    }
+
+    @TransactionalEventListener
+    public void onContactsWritten(ContactsWrittenEvent event) {
+        subscriptions.forEach(Subscription::signal);
+    }
+
+    private ContactChangeDTO toDTO(ContactChange change) {
+        try {
+            ContactDTO contact = objectMapper.readValue(change.getPayload(), ContactDTO.class);
+            return new ContactChangeDTO(change.getChangeOffset(), change.getContactId(),
+                    change.getType().name(), contact, change.getChangedAt());
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unreadable change payload at offset " + change.getChangeOffset(), e);
+        }
+    }
+
+    public final class Subscription {
+
+        private final int batchSize;
+        private final Consumer<List<ContactChangeDTO>> sink;
+        private final AtomicBoolean running = new AtomicBoolean();
+        private volatile boolean dirty;
+        private volatile boolean cancelled;
+        private volatile long offset;
+
+        private Subscription(long after, int batchSize, Consumer<List<ContactChangeDTO>> sink) {
+            this.offset = after;
+            this.batchSize = batchSize;
+            this.sink = sink;
+        }
+
+        public long getOffset() {
+            return offset;
+        }
+
+        public void cancel() {
+            cancelled = true;
+            subscriptions.remove(this);
+        }
+
+        private void signal() {
+            dirty = true;
+            if (!cancelled && running.compareAndSet(false, true)) {
+                deliveryExecutor.execute(this::drain);
+            }
+        }
+
+        // At most one drain per subscription runs at a time; a signal during a drain triggers another pass
+        private void drain() {
+            do {
+                dirty = false;
+                try {
+                    List<ContactChangeDTO> batch;
+                    while (!cancelled && !(batch = read(offset, batchSize)).isEmpty()) {
+                        sink.accept(batch);
+                        offset = batch.get(batch.size() - 1).getOffset();
+                    }
+                } catch (RuntimeException e) {
+                    log.debug("Contact change subscriber failed at offset {}", offset, e);
+                    cancel();
+                }
+                running.set(false);
+            } while (dirty && !cancelled && running.compareAndSet(false, true));
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package org.ostad._3_assignemnt.changelog;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.PersistenceContext;
+import org.ostad._3_assignemnt.entity.ContactChange;
+import org.ostad._3_assignemnt.entity.ContactChangeLogHead;
+import org.ostad._3_assignemnt.event.ContactWrite;
+import org.ostad._3_assignemnt.event.ContactsWrittenEvent;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+
+/**
+ * Appends every contact write to the contact_changes outbox inside the writing transaction,
+ * so the change log commits or rolls back together with the contacts themselves.
+ */
+@Component
+public class ContactChangeLog implements SmartInitializingSingleton {
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${contacts.bulk.flush-size:1000}")
+    private int flushSize;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    // Runs once the schema exists and before the web server accepts requests, so the head row is there
+    // before the first write; inserting only when absent keeps it idempotent across restarts
+    @Override
+    public void afterSingletonsInstantiated() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> jdbcTemplate.update(
+                "INSERT INTO contact_change_log_head (id, last_offset) " +
+                "SELECT ?, COALESCE(MAX(change_offset), 0) FROM contact_changes " +
+                "WHERE NOT EXISTS (SELECT 1 FROM contact_change_log_head WHERE id = ?)",
+                ContactChangeLogHead.ID, ContactChangeLogHead.ID));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void append(ContactsWrittenEvent event) {
+        if (event.getWrites().isEmpty()) {
+            return;
+        }
+        // Held until commit: appenders queue up here, so offsets follow commit order
+        ContactChangeLogHead head = entityManager.find(
+                ContactChangeLogHead.class, ContactChangeLogHead.ID, LockModeType.PESSIMISTIC_WRITE);
+        if (head == null) {
+            throw new IllegalStateException("Contact change log head row is missing");
+        }
+        long offset = head.getLastOffset();
+        head.setLastOffset(offset + event.getWrites().size());
+
+        LocalDateTime now = LocalDateTime.now();
+        int pending = 0;
+        for (ContactWrite write : event.getWrites()) {
+            entityManager.persist(new ContactChange(++offset, write.getId(), typeOf(write), payloadOf(write), now));
+            if (++pending == flushSize) {
+                entityManager.flush();
+                entityManager.clear();
+                pending = 0;
+            }
+        }
+        // Lets after-commit listeners tell whether a snapshot they loaded already includes these writes
+        event.setChangeOffset(offset);
+    }
+
+    private static ContactChange.Type typeOf(ContactWrite write) {
+        if (write.isCreate()) {
+            return ContactChange.Type.CREATED;
+        }
+        return write.isDelete() ? ContactChange.Type.DELETED : ContactChange.Type.UPDATED;
+    }
+
+    private String payloadOf(ContactWrite write) {
+        try {
+            return objectMapper.writeValueAsString(write.isDelete() ? write.getPrevious() : write.getCurrent());
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize change for contact " + write.getId(), e);
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package org.ostad._3_assignemnt.concurrency;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Caps how many calls of the annotated method group may run at once.
+ * Limits are configured per group with {@code contacts.bulkhead.<group>.max-concurrent}
+ * and {@code contacts.bulkhead.<group>.max-wait}.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Bulkhead {
+
+    /** Name of the group the method shares its permits with. */
+    String value();
+}
@@ -0,0 +1,70 @@
+package org.ostad._3_assignemnt.concurrency;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Enforces {@link Bulkhead} limits with one semaphore per group, so a burst of heavy scans
+ * is turned away with 503 instead of occupying every request thread and starving point lookups.
+ * Runs outside the transaction advice, so callers waiting for a permit do not hold a connection
+ * (and inside {@link SingleFlightAspect}, so coalesced callers do not take a permit).
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+public class BulkheadAspect {
+
+    private static final int DEFAULT_MAX_CONCURRENT = 8;
+    private static final Duration DEFAULT_MAX_WAIT = Duration.ofMillis(100);
+
+    @Autowired
+    private Environment environment;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final Map<String, Semaphore> semaphores = new ConcurrentHashMap<>();
+    private final Map<String, Duration> maxWaits = new ConcurrentHashMap<>();
+
+    @Around("@annotation(bulkhead)")
+    public Object limit(ProceedingJoinPoint joinPoint, Bulkhead bulkhead) throws Throwable {
+        String group = bulkhead.value();
+        Semaphore semaphore = semaphores.computeIfAbsent(group, this::createSemaphore);
+        Duration maxWait = maxWaits.computeIfAbsent(group, name -> environment.getProperty(
+                "contacts.bulkhead." + name + ".max-wait", Duration.class, DEFAULT_MAX_WAIT));
+
+        if (!semaphore.tryAcquire(maxWait.toNanos(), TimeUnit.NANOSECONDS)) {
+            meterRegistry.counter("contacts.bulkhead.rejected", "group", group).increment();
+            throw new BulkheadFullException(group);
+        }
+        try {
+            return joinPoint.proceed();
+        } finally {
+            semaphore.release();
+        }
+    }
+
+    private Semaphore createSemaphore(String group) {
+        int maxConcurrent = environment.getProperty(
+                "contacts.bulkhead." + group + ".max-concurrent", Integer.class, DEFAULT_MAX_CONCURRENT);
+        Semaphore semaphore = new Semaphore(maxConcurrent, true);
+        Gauge.builder("contacts.bulkhead.available", semaphore, Semaphore::availablePermits)
+                .tag("group", group)
+                .register(meterRegistry);
+        return semaphore;
+    }
+}
@@ -0,0 +1,12 @@
+package org.ostad._3_assignemnt.concurrency;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class BulkheadFullException extends RuntimeException {
+
+    public BulkheadFullException(String group) {
+        super("Too many concurrent '" + group + "' requests, try again later");
+    }
+}
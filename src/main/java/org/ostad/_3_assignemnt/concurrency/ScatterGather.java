@@ -0,0 +1,116 @@
+package org.ostad._3_assignemnt.concurrency;
+
+import jakarta.annotation.PreDestroy;
+import org.ostad._3_assignemnt.datasource.ReadYourWrites;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Runs one query per key concurrently on a bounded pool, each in its own read-only transaction
+ * (and therefore on its own connection), and merges the results.
+ * <p>
+ * Splitting only pays off when there is enough work to spread: {@link #worthSplitting} keeps
+ * requests below {@code contacts.scatter.min-rows} estimated rows on the single-query path.
+ */
+@Component
+public class ScatterGather {
+
+    private final ExecutorService executor;
+    private final TransactionTemplate readOnly;
+
+    @Value("${contacts.scatter.min-rows:20000}")
+    private long minRows;
+
+    // Present with replica routing: a caller pinned to the primary keeps its parts on the primary
+    @Autowired(required = false)
+    private ReadYourWrites readYourWrites;
+
+    @Autowired
+    public ScatterGather(PlatformTransactionManager transactionManager,
+                         @Value("${contacts.scatter.threads:4}") int threads) {
+        AtomicInteger count = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(threads, task -> {
+            Thread thread = new Thread(task, "contacts-scatter-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.readOnly = new TransactionTemplate(transactionManager);
+        this.readOnly.setReadOnly(true);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    public boolean worthSplitting(int parts, long estimatedRows) {
+        return parts > 1 && estimatedRows >= minRows;
+    }
+
+    /**
+     * Runs {@code query} for every key in parallel and returns the results in key order.
+     * The caller must not hold a connection while waiting, or the pool and the connection pool
+     * can starve each other.
+     */
+    public <K, T> List<List<T>> scatter(List<K> keys, Function<K, List<T>> query) {
+        Executor tasks = readYourWrites != null ? task -> executor.execute(readYourWrites.decorate(task)) : executor;
+        List<CompletableFuture<List<T>>> futures = new ArrayList<>(keys.size());
+        for (K key : keys) {
+            futures.add(CompletableFuture.supplyAsync(() -> readOnly.execute(status -> query.apply(key)), tasks));
+        }
+        List<List<T>> results = new ArrayList<>(keys.size());
+        try {
+            for (CompletableFuture<List<T>> future : futures) {
+                results.add(future.join());
+            }
+        } catch (CompletionException e) {
+            futures.forEach(future -> future.cancel(true));
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+        return results;
+    }
+
+    /** K-way merge of lists that are each sorted by {@code order}. */
+    public static <T> List<T> mergeSorted(List<List<T>> sortedLists, Comparator<? super T> order) {
+        int total = 0;
+        for (List<T> list : sortedLists) {
+            total += list.size();
+        }
+        List<T> merged = new ArrayList<>(total);
+        // Heap entries are {list index, position in that list}
+        PriorityQueue<int[]> heads = new PriorityQueue<>(Math.max(sortedLists.size(), 1),
+                (a, b) -> order.compare(sortedLists.get(a[0]).get(a[1]), sortedLists.get(b[0]).get(b[1])));
+        for (int i = 0; i < sortedLists.size(); i++) {
+            if (!sortedLists.get(i).isEmpty()) {
+                heads.add(new int[]{i, 0});
+            }
+        }
+        while (!heads.isEmpty()) {
+            int[] head = heads.poll();
+            List<T> list = sortedLists.get(head[0]);
+            merged.add(list.get(head[1]));
+            if (++head[1] < list.size()) {
+                heads.add(head);
+            }
+        }
+        return merged;
+    }
+}
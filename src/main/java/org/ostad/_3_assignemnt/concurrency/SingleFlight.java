@@ -0,0 +1,18 @@
+package org.ostad._3_assignemnt.concurrency;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Coalesces concurrent calls of the annotated method that have equal arguments: the first call runs,
+ * the others wait for it and receive the same result (or exception). Calls arriving after it finished
+ * run again.
+ * <p>
+ * Callers share the returned instance, so only annotate read methods whose results are not modified.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface SingleFlight {
+}
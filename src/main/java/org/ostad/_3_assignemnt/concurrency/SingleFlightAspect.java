@@ -0,0 +1,84 @@
+package org.ostad._3_assignemnt.concurrency;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.ostad._3_assignemnt.datasource.ReadYourWrites;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Runs {@link SingleFlight} methods once per distinct (method, arguments) in flight. Counts every call
+ * in {@code contacts.singleflight.calls}, tagged with the method and whether it ran the query
+ * ({@code leader}), waited for another call's result ({@code coalesced}) or ran on its own because
+ * the thread is pinned to the primary by {@link ReadYourWrites} ({@code pinned}): a shared query may
+ * have read a replica, or started before the caller's own write committed.
+ * <p>
+ * Runs outermost, ahead of the bulkhead and transaction advice, so waiting callers take neither a
+ * permit nor a connection.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class SingleFlightAspect {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // Present with replica routing (contacts.datasource.replicas)
+    @Autowired(required = false)
+    private ReadYourWrites readYourWrites;
+
+    private final Map<List<Object>, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+
+    @Around("@annotation(org.ostad._3_assignemnt.concurrency.SingleFlight)")
+    public Object coalesce(ProceedingJoinPoint joinPoint) throws Throwable {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        String name = method.getDeclaringClass().getSimpleName() + "." + method.getName();
+        if (readYourWrites != null && readYourWrites.isPinned()) {
+            meterRegistry.counter("contacts.singleflight.calls", "method", name, "role", "pinned").increment();
+            return joinPoint.proceed();
+        }
+
+        List<Object> key = new ArrayList<>(joinPoint.getArgs().length + 1);
+        key.add(method);
+        key.addAll(Arrays.asList(joinPoint.getArgs()));
+
+        CompletableFuture<Object> flight = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(key, flight);
+        if (existing != null) {
+            meterRegistry.counter("contacts.singleflight.calls", "method", name, "role", "coalesced").increment();
+            try {
+                return existing.get();
+            } catch (ExecutionException e) {
+                throw e.getCause();
+            }
+        }
+
+        meterRegistry.counter("contacts.singleflight.calls", "method", name, "role", "leader").increment();
+        try {
+            Object result = joinPoint.proceed();
+            // Removed before completing, so later callers start a fresh query instead of reusing this result
+            inFlight.remove(key, flight);
+            flight.complete(result);
+            return result;
+        } catch (Throwable e) {
+            inFlight.remove(key, flight);
+            flight.completeExceptionally(e);
+            throw e;
+        }
+    }
+}
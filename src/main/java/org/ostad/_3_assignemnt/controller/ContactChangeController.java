@@ -0,0 +1,99 @@
+package org.ostad._3_assignemnt.controller;
+
+import org.ostad._3_assignemnt.changelog.ContactChangeFeed;
+import org.ostad._3_assignemnt.dto.ContactChangeDTO;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Tails the contact change log. Consumers keep the offset of the last change they processed
+ * and pass it back as {@code after} (or as Last-Event-ID when reconnecting to the SSE stream).
+ */
+@RestController
+@RequestMapping("/api/contacts/changes")
+public class ContactChangeController {
+
+    private static final int MAX_BATCH_SIZE = 5000;
+
+    @Autowired
+    private ContactChangeFeed contactChangeFeed;
+
+    @Value("${contacts.changes.max-wait:60s}")
+    private Duration maxWait;
+
+    @Value("${contacts.changes.sse-timeout:30m}")
+    private Duration sseTimeout;
+
+    // Long poll: returns at once if there are changes after the offset, otherwise waits up to `wait` for some
+    @GetMapping
+    public DeferredResult<List<ContactChangeDTO>> getChanges(
+            @RequestParam(defaultValue = "0") long after,
+            @RequestParam(defaultValue = "500") int limit,
+            @RequestParam(defaultValue = "30s") Duration wait) {
+        int batchSize = batchSize(limit);
+        long waitMillis = Math.min(wait.toMillis(), maxWait.toMillis());
+        DeferredResult<List<ContactChangeDTO>> result = new DeferredResult<>(Math.max(waitMillis, 1), List.of());
+        if (waitMillis <= 0) {
+            result.setResult(contactChangeFeed.read(after, batchSize));
+            return result;
+        }
+        AtomicReference<ContactChangeFeed.Subscription> subscription = new AtomicReference<>();
+        subscription.set(contactChangeFeed.subscribe(after, batchSize, batch -> {
+            result.setResult(batch);
+            cancel(subscription.get());
+        }));
+        result.onCompletion(() -> cancel(subscription.get()));
+        return result;
+    }
+
+    // Server-Sent Events: one "changes" event per batch, with the batch's last offset as the event id
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamChanges(
+            @RequestParam(required = false) Long after,
+            @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId,
+            @RequestParam(defaultValue = "500") int batchSize) {
+        long from = lastEventId != null ? lastEventId : after != null ? after : contactChangeFeed.lastOffset();
+        SseEmitter emitter = new SseEmitter(sseTimeout.toMillis());
+        ContactChangeFeed.Subscription subscription = contactChangeFeed.subscribe(from, batchSize(batchSize), batch -> {
+            try {
+                emitter.send(SseEmitter.event()
+                        .id(String.valueOf(batch.get(batch.size() - 1).getOffset()))
+                        .name("changes")
+                        .data(batch, MediaType.APPLICATION_JSON));
+            } catch (IOException e) {
+                emitter.completeWithError(e);
+                throw new UncheckedIOException(e);
+            }
+        });
+        emitter.onCompletion(subscription::cancel);
+        emitter.onTimeout(subscription::cancel);
+        emitter.onError(error -> subscription.cancel());
+        return emitter;
+    }
+
+    private static void cancel(ContactChangeFeed.Subscription subscription) {
+        if (subscription != null) {
+            subscription.cancel();
+        }
+    }
+
+    private static int batchSize(int requested) {
+        if (requested < 1 || requested > MAX_BATCH_SIZE) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Batch size must be between 1 and " + MAX_BATCH_SIZE);
+        }
+        return requested;
+    }
+}
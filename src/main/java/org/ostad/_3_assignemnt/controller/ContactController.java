@@ -1,22 +1,48 @@
 package org.ostad._3_assignemnt.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import jakarta.validation.Valid;
+import org.ostad._3_assignemnt.datasource.ReadYourWrites;
+import org.ostad._3_assignemnt.dto.BulkResultDTO;
 import org.ostad._3_assignemnt.dto.CategoryCountDTO;
+import org.ostad._3_assignemnt.dto.ContactCursor;
 import org.ostad._3_assignemnt.dto.ContactDTO;
 import org.ostad._3_assignemnt.dto.ContactProjection;
+import org.ostad._3_assignemnt.dto.ContactSearchCriteria;
+import org.ostad._3_assignemnt.dto.CursorPageDTO;
+import org.ostad._3_assignemnt.dto.DomainCountDTO;
+import org.ostad._3_assignemnt.dto.TimelineBucketDTO;
+import org.ostad._3_assignemnt.repository.ContactSpecifications;
 import org.ostad._3_assignemnt.service.ContactService;
+import org.ostad._3_assignemnt.statistics.ContactTimelineRollup;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.function.Consumer;
 
 @RestController
 @RequestMapping("/api/contacts")
@@ -25,18 +51,42 @@ public class ContactController {
     @Autowired
     private ContactService contactService;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${contacts.bulk.max-items:10000}")
+    private int bulkMaxItems;
+
+    @Value("${contacts.keyset.max-size:1000}")
+    private int keysetMaxSize;
+
+    // Present with replica routing (contacts.datasource.replicas)
+    @Autowired(required = false)
+    private ReadYourWrites readYourWrites;
+
     // ============= CRUD Endpoints =============
 
     @PostMapping
     public ResponseEntity<ContactDTO> createContact(@Valid @RequestBody ContactDTO contactDTO) {
-        ContactDTO createdContact = contactService.createContact(contactDTO);
-        return ResponseEntity.status(HttpStatus.CREATED).body(createdContact);
+        try {
+            ContactDTO createdContact = contactService.createContact(contactDTO);
+            return ResponseEntity.status(HttpStatus.CREATED).body(createdContact);
+        } catch (DataIntegrityViolationException e) {
+            throw duplicateEmail(e, contactDTO.getEmail());
+        }
     }
 
+    // Conditional GET: a matching If-None-Match gets 304 without a body
     @GetMapping("/{id}")
-    public ResponseEntity<ContactDTO> getContactById(@PathVariable Long id) {
+    public ResponseEntity<ContactDTO> getContactById(@PathVariable Long id, WebRequest request) {
         return contactService.getContactById(id)
-                .map(ResponseEntity::ok)
+                .map(contact -> {
+                    String eTag = eTag(contact);
+                    if (request.checkNotModified(eTag)) {
+                        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).<ContactDTO>build();
+                    }
+                    return ResponseEntity.ok().eTag(eTag).body(contact);
+                })
                 .orElse(ResponseEntity.notFound().build());
     }
 
@@ -46,11 +96,37 @@ public class ContactController {
         return ResponseEntity.ok(contacts);
     }
 
+    // If-Match (or a version in the body) makes the update conditional: 412 / 409 when stale
     @PutMapping("/{id}")
     public ResponseEntity<ContactDTO> updateContact(@PathVariable Long id,
-                                                    @Valid @RequestBody ContactDTO contactDTO) {
-        ContactDTO updatedContact = contactService.updateContact(id, contactDTO);
-        return ResponseEntity.ok(updatedContact);
+                                                    @Valid @RequestBody ContactDTO contactDTO,
+                                                    @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Long expectedVersion = ifMatch != null ? parseVersion(ifMatch) : contactDTO.getVersion();
+        try {
+            ContactDTO updatedContact = contactService.updateContact(id, contactDTO, expectedVersion);
+            return ResponseEntity.ok().eTag(eTag(updatedContact)).body(updatedContact);
+        } catch (OptimisticLockingFailureException e) {
+            throw versionConflict(id, ifMatch);
+        } catch (DataIntegrityViolationException e) {
+            throw duplicateEmail(e, contactDTO.getEmail());
+        }
+    }
+
+    // Partial update: only the fields present in the body are changed
+    @PatchMapping("/{id}")
+    public ResponseEntity<ContactDTO> patchContact(@PathVariable Long id,
+                                                   @RequestBody ContactDTO changes,
+                                                   @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        try {
+            ContactDTO patchedContact = contactService.patchContact(id, changes, parseVersion(ifMatch));
+            return ResponseEntity.ok().eTag(eTag(patchedContact)).body(patchedContact);
+        } catch (OptimisticLockingFailureException e) {
+            throw versionConflict(id, ifMatch);
+        } catch (DataIntegrityViolationException e) {
+            throw duplicateEmail(e, changes.getEmail());
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
     }
 
     @DeleteMapping("/{id}")
@@ -59,6 +135,29 @@ public class ContactController {
         return ResponseEntity.noContent().build();
     }
 
+    // ============= Bulk Endpoints =============
+
+    @PostMapping("/bulk")
+    public ResponseEntity<BulkResultDTO> bulkCreateContacts(@RequestBody List<ContactDTO> contactDTOs) {
+        checkBulkSize(contactDTOs);
+        BulkResultDTO result = contactService.bulkCreateContacts(contactDTOs);
+        return ResponseEntity.ok(result);
+    }
+
+    @PutMapping("/bulk")
+    public ResponseEntity<BulkResultDTO> bulkUpdateContacts(@RequestBody List<ContactDTO> contactDTOs) {
+        checkBulkSize(contactDTOs);
+        BulkResultDTO result = contactService.bulkUpdateContacts(contactDTOs);
+        return ResponseEntity.ok(result);
+    }
+
+    @PostMapping("/bulk/delete")
+    public ResponseEntity<BulkResultDTO> bulkDeleteContacts(@RequestBody List<Long> ids) {
+        checkBulkSize(ids);
+        BulkResultDTO result = contactService.bulkDeleteContacts(ids);
+        return ResponseEntity.ok(result);
+    }
+
     // ============= Derived Query Endpoints =============
 
     @GetMapping("/firstname/{firstName}")
@@ -80,22 +179,48 @@ public class ContactController {
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    // List and search endpoints take an optional fields=firstName,email (sparse fieldset): only those
+    // columns are queried and each contact is returned as an object with just those properties.
+    // Covered: /active, /category/..., /categories, /created-after, /created-between, /recent,
+    // /email-domain/{domain} and /search/advanced. /search/name (ranked by the name index) and the
+    // keyset endpoints (cursor taken from the full row) always return full contacts.
+
     @GetMapping("/category/{category}")
-    public ResponseEntity<List<ContactDTO>> getContactsByCategory(@PathVariable String category) {
+    public ResponseEntity<List<?>> getContactsByCategory(@PathVariable String category,
+                                                         @RequestParam(required = false) String fields) {
+        requireText(category, "category");
+        if (fields != null) {
+            ContactSearchCriteria criteria = new ContactSearchCriteria();
+            criteria.setCategory(category);
+            return ResponseEntity.ok(contactService.getContactFields(criteria, parseFields(fields), Sort.unsorted()));
+        }
         List<ContactDTO> contacts = contactService.getContactsByCategory(category);
         return ResponseEntity.ok(contacts);
     }
 
     @GetMapping("/active")
-    public ResponseEntity<List<ContactDTO>> getActiveContacts() {
+    public ResponseEntity<List<?>> getActiveContacts(@RequestParam(required = false) String fields) {
+        if (fields != null) {
+            ContactSearchCriteria criteria = new ContactSearchCriteria();
+            criteria.setIsActive(true);
+            return ResponseEntity.ok(contactService.getContactFields(criteria, parseFields(fields), Sort.unsorted()));
+        }
         List<ContactDTO> contacts = contactService.getActiveContacts();
         return ResponseEntity.ok(contacts);
     }
 
     @GetMapping("/category/{category}/status/{isActive}")
-    public ResponseEntity<List<ContactDTO>> getContactsByCategoryAndStatus(
+    public ResponseEntity<List<?>> getContactsByCategoryAndStatus(
             @PathVariable String category,
-            @PathVariable Boolean isActive) {
+            @PathVariable Boolean isActive,
+            @RequestParam(required = false) String fields) {
+        requireText(category, "category");
+        if (fields != null) {
+            ContactSearchCriteria criteria = new ContactSearchCriteria();
+            criteria.setCategory(category);
+            criteria.setIsActive(isActive);
+            return ResponseEntity.ok(contactService.getContactFields(criteria, parseFields(fields), Sort.unsorted()));
+        }
         List<ContactDTO> contacts = contactService.getContactsByCategoryAndStatus(category, isActive);
         return ResponseEntity.ok(contacts);
     }
@@ -107,16 +232,26 @@ public class ContactController {
     }
 
     @GetMapping("/created-after")
-    public ResponseEntity<List<ContactDTO>> getContactsCreatedAfter(
-            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime date) {
+    public ResponseEntity<List<?>> getContactsCreatedAfter(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime date,
+            @RequestParam(required = false) String fields) {
+        if (fields != null) {
+            return ResponseEntity.ok(contactService.getContactFields(
+                    ContactSpecifications.createdAfter(date), parseFields(fields), Sort.unsorted()));
+        }
         List<ContactDTO> contacts = contactService.getContactsCreatedAfter(date);
         return ResponseEntity.ok(contacts);
     }
 
     @GetMapping("/created-between")
-    public ResponseEntity<List<ContactDTO>> getContactsCreatedBetween(
+    public ResponseEntity<List<?>> getContactsCreatedBetween(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
-            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate) {
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            @RequestParam(required = false) String fields) {
+        if (fields != null) {
+            return ResponseEntity.ok(contactService.getContactFields(
+                    ContactSpecifications.createdBetween(startDate, endDate), parseFields(fields), Sort.unsorted()));
+        }
         List<ContactDTO> contacts = contactService.getContactsCreatedBetween(startDate, endDate);
         return ResponseEntity.ok(contacts);
     }
@@ -142,8 +277,7 @@ public class ContactController {
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(defaultValue = "creationDate") String sortBy,
             @RequestParam(defaultValue = "DESC") String sortDirection) {
-        Sort.Direction direction = sortDirection.equalsIgnoreCase("ASC") ? Sort.Direction.ASC : Sort.Direction.DESC;
-        Pageable pageable = PageRequest.of(page, size, Sort.by(direction, sortBy));
+        Pageable pageable = PageRequest.of(page, size, toSort(sortBy, sortDirection));
         Page<ContactDTO> contacts = contactService.getActiveContactsByCategory(category, pageable);
         return ResponseEntity.ok(contacts);
     }
@@ -159,7 +293,18 @@ public class ContactController {
     }
 
     @GetMapping("/categories")
-    public ResponseEntity<List<ContactDTO>> getContactsByCategories(@RequestParam List<String> categories) {
+    public ResponseEntity<List<?>> getContactsByCategories(@RequestParam List<String> categories,
+                                                           @RequestParam(required = false) String fields) {
+        if (categories.stream().allMatch(category -> category == null || category.isBlank())) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "categories must name at least one category");
+        }
+        if (fields != null) {
+            ContactSearchCriteria criteria = new ContactSearchCriteria();
+            criteria.setCategories(categories);
+            criteria.setIsActive(true);
+            Sort newestFirst = Sort.by(Sort.Direction.DESC, "creationDate", "id");
+            return ResponseEntity.ok(contactService.getContactFields(criteria, parseFields(fields), newestFirst));
+        }
         List<ContactDTO> contacts = contactService.getContactsByCategories(categories);
         return ResponseEntity.ok(contacts);
     }
@@ -171,7 +316,14 @@ public class ContactController {
     }
 
     @GetMapping("/recent")
-    public ResponseEntity<List<ContactDTO>> getRecentContacts(@RequestParam(defaultValue = "7") int days) {
+    public ResponseEntity<List<?>> getRecentContacts(@RequestParam(defaultValue = "7") int days,
+                                                     @RequestParam(required = false) String fields) {
+        if (fields != null) {
+            ContactSearchCriteria criteria = new ContactSearchCriteria();
+            criteria.setCreatedAfter(LocalDateTime.now().minusDays(days));
+            Sort newestFirst = Sort.by(Sort.Direction.DESC, "creationDate", "id");
+            return ResponseEntity.ok(contactService.getContactFields(criteria, parseFields(fields), newestFirst));
+        }
         List<ContactDTO> contacts = contactService.getRecentContacts(days);
         return ResponseEntity.ok(contacts);
     }
@@ -193,21 +345,64 @@ public class ContactController {
     // ============= Advanced Search Endpoint =============
 
     @GetMapping("/search/advanced")
-    public ResponseEntity<Page<ContactDTO>> searchContacts(
+    public ResponseEntity<Page<?>> searchContacts(
             @RequestParam(required = false) String firstName,
             @RequestParam(required = false) String lastName,
             @RequestParam(required = false) String category,
+            @RequestParam(required = false) List<String> categories,
             @RequestParam(required = false) Boolean isActive,
+            @RequestParam(required = false) String emailDomain,
+            @RequestParam(required = false) String phonePrefix,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdAfter,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdBefore,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(defaultValue = "creationDate") String sortBy,
-            @RequestParam(defaultValue = "DESC") String sortDirection) {
-        Sort.Direction direction = sortDirection.equalsIgnoreCase("ASC") ? Sort.Direction.ASC : Sort.Direction.DESC;
-        Pageable pageable = PageRequest.of(page, size, Sort.by(direction, sortBy));
-        Page<ContactDTO> contacts = contactService.searchContacts(firstName, lastName, category, isActive, pageable);
+            @RequestParam(defaultValue = "DESC") String sortDirection,
+            @RequestParam(required = false) String fields) {
+        ContactSearchCriteria criteria = new ContactSearchCriteria(firstName, lastName, category, categories,
+                isActive, emailDomain, phonePrefix, createdAfter, createdBefore);
+        Pageable pageable = PageRequest.of(page, size, toSort(sortBy, sortDirection));
+        if (fields != null) {
+            return ResponseEntity.ok(contactService.searchContactFields(criteria, parseFields(fields), pageable));
+        }
+        Page<ContactDTO> contacts = contactService.searchContacts(criteria, pageable);
         return ResponseEntity.ok(contacts);
     }
 
+    // ============= Keyset (Cursor) Pagination Endpoints =============
+
+    @GetMapping("/category/{category}/active/keyset")
+    public ResponseEntity<CursorPageDTO<ContactDTO>> getActiveContactsByCategoryKeyset(
+            @PathVariable String category,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "10") int size) {
+        checkKeysetSize(size);
+        Slice<ContactDTO> contacts = contactService.getActiveContactsByCategoryAfter(
+                category, decodeCursor(after), size);
+        return ResponseEntity.ok(toCursorPage(contacts));
+    }
+
+    @GetMapping("/search/advanced/keyset")
+    public ResponseEntity<CursorPageDTO<ContactDTO>> searchContactsKeyset(
+            @RequestParam(required = false) String firstName,
+            @RequestParam(required = false) String lastName,
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) List<String> categories,
+            @RequestParam(required = false) Boolean isActive,
+            @RequestParam(required = false) String emailDomain,
+            @RequestParam(required = false) String phonePrefix,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdAfter,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdBefore,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "10") int size) {
+        ContactSearchCriteria criteria = new ContactSearchCriteria(firstName, lastName, category, categories,
+                isActive, emailDomain, phonePrefix, createdAfter, createdBefore);
+        checkKeysetSize(size);
+        Slice<ContactDTO> contacts = contactService.searchContactsAfter(criteria, decodeCursor(after), size);
+        return ResponseEntity.ok(toCursorPage(contacts));
+    }
+
     // ============= Statistics Endpoints =============
 
     @GetMapping("/statistics/category-counts")
@@ -216,9 +411,194 @@ public class ContactController {
         return ResponseEntity.ok(counts);
     }
 
+    @GetMapping("/statistics/domain-counts")
+    public ResponseEntity<List<DomainCountDTO>> getContactCountsByEmailDomain() {
+        List<DomainCountDTO> counts = contactService.getContactCountsByEmailDomain();
+        return ResponseEntity.ok(counts);
+    }
+
+    // Contacts created in [from, to) per hour, day or week (weeks start on Monday), optionally per category
+    @GetMapping("/statistics/timeline")
+    public ResponseEntity<List<TimelineBucketDTO>> getCreationTimeline(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "DAY") String granularity,
+            @RequestParam(required = false) String category,
+            @RequestParam(defaultValue = "false") boolean byCategory) {
+        try {
+            ContactTimelineRollup.Granularity bucket = ContactTimelineRollup.Granularity.valueOf(granularity.toUpperCase());
+            return ResponseEntity.ok(contactService.getCreationTimeline(from, to, bucket, category, byCategory));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
     @GetMapping("/email-domain/{domain}")
-    public ResponseEntity<List<ContactDTO>> getContactsByEmailDomain(@PathVariable String domain) {
+    public ResponseEntity<List<?>> getContactsByEmailDomain(@PathVariable String domain,
+                                                            @RequestParam(required = false) String fields) {
+        requireText(domain, "domain");
+        if (fields != null) {
+            ContactSearchCriteria criteria = new ContactSearchCriteria();
+            criteria.setEmailDomain(domain);
+            return ResponseEntity.ok(contactService.getContactFields(criteria, parseFields(fields), Sort.unsorted()));
+        }
         List<ContactDTO> contacts = contactService.getContactsByEmailDomain(domain);
         return ResponseEntity.ok(contacts);
     }
+
+    // ============= Streaming Export Endpoints (NDJSON) =============
+
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAllContacts() {
+        return ndjson(contactService::streamAllContacts);
+    }
+
+    @GetMapping(value = "/stream/active", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamActiveContacts() {
+        return ndjson(contactService::streamActiveContacts);
+    }
+
+    @GetMapping(value = "/stream/category/{category}", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamContactsByCategory(@PathVariable String category) {
+        return ndjson(consumer -> contactService.streamContactsByCategory(category, consumer));
+    }
+
+    @GetMapping(value = "/stream/created-between", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamContactsCreatedBetween(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate) {
+        return ndjson(consumer -> contactService.streamContactsCreatedBetween(startDate, endDate, consumer));
+    }
+
+    @GetMapping(value = "/stream/email-domain/{domain}", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamContactsByEmailDomain(@PathVariable String domain) {
+        return ndjson(consumer -> contactService.streamContactsByEmailDomain(domain, consumer));
+    }
+
+    // ============= Helper Methods =============
+
+    // One request is one transaction holding a bulk permit; the cap bounds both
+    private void checkBulkSize(List<?> items) {
+        if (items.size() > bulkMaxItems) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "At most " + bulkMaxItems + " items per bulk request, got " + items.size());
+        }
+    }
+
+    private void checkKeysetSize(int size) {
+        if (size < 1 || size > keysetMaxSize) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "size must be between 1 and " + keysetMaxSize + ", got " + size);
+        }
+    }
+
+    private String eTag(ContactDTO contact) {
+        return "\"" + contact.getVersion() + "\"";
+    }
+
+    // Accepts "3", W/"3" or * (any version); returns null when no particular version is required
+    private Long parseVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.startsWith("W/")) {
+            tag = tag.substring(2);
+        }
+        try {
+            return Long.valueOf(tag.replace("\"", ""));
+        } catch (NumberFormatException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unsupported If-Match value: " + ifMatch);
+        }
+    }
+
+    private ResponseStatusException versionConflict(Long id, String ifMatch) {
+        HttpStatus status = ifMatch != null ? HttpStatus.PRECONDITION_FAILED : HttpStatus.CONFLICT;
+        return new ResponseStatusException(status, "Contact " + id + " was modified by another request");
+    }
+
+    // The unique index ux_contacts_email rejects a taken email; other integrity violations stay a 500
+    private RuntimeException duplicateEmail(DataIntegrityViolationException e, String email) {
+        String message = e.getMostSpecificCause().getMessage();
+        if (message != null && message.toLowerCase(Locale.ROOT).contains("ux_contacts_email")) {
+            return new ResponseStatusException(HttpStatus.CONFLICT, "Email already exists: " + email);
+        }
+        return e;
+    }
+
+    private Sort toSort(String sortBy, String sortDirection) {
+        if (!ContactSpecifications.isSortable(sortBy)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Cannot sort by '" + sortBy + "', allowed: " + ContactSpecifications.SORTABLE_FIELDS);
+        }
+        Sort.Direction direction = sortDirection.equalsIgnoreCase("ASC") ? Sort.Direction.ASC : Sort.Direction.DESC;
+        return ContactSpecifications.sort(sortBy, direction);
+    }
+
+    // The criteria query skips blank filters, so a blank value would match every contact
+    private void requireText(String value, String name) {
+        if (value == null || value.isBlank()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, name + " must not be blank");
+        }
+    }
+
+    private Set<String> parseFields(String fields) {
+        try {
+            return ContactSpecifications.fields(fields);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
+    private ContactCursor decodeCursor(String after) {
+        if (after == null || after.isBlank()) {
+            return null;
+        }
+        try {
+            return ContactCursor.decode(after);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
+    private CursorPageDTO<ContactDTO> toCursorPage(Slice<ContactDTO> slice) {
+        List<ContactDTO> content = slice.getContent();
+        String nextCursor = slice.hasNext() && !content.isEmpty()
+                ? ContactCursor.of(content.get(content.size() - 1)).encode()
+                : null;
+        return new CursorPageDTO<>(content, content.size(), slice.hasNext(), nextCursor);
+    }
+
+    /**
+     * Writes one JSON document per line while the service is still reading rows,
+     * so nothing is buffered beyond the current contact.
+     */
+    private ResponseEntity<StreamingResponseBody> ndjson(Consumer<Consumer<ContactDTO>> export) {
+        ObjectWriter writer = objectMapper.writerFor(ContactDTO.class)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        // The body runs on an async thread: it keeps the request's read-your-writes pin
+        boolean pinned = readYourWrites != null && readYourWrites.isPinned();
+        StreamingResponseBody body = out -> {
+            if (pinned) {
+                readYourWrites.pin();
+            }
+            try {
+                export.accept(contact -> {
+                    try {
+                        writer.writeValue(out, contact);
+                        out.write('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } finally {
+                if (pinned) {
+                    readYourWrites.unpin();
+                }
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,31 @@
+package org.ostad._3_assignemnt.controller;
+
+import org.ostad._3_assignemnt.dto.BackupDTO;
+import org.ostad._3_assignemnt.service.DatabaseBackupService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+
+@RestController
+@RequestMapping("/api/database")
+public class DatabaseController {
+
+    @Autowired
+    private DatabaseBackupService databaseBackupService;
+
+    // Online snapshot of the file-backed store; 409 for in-memory databases or while a backup runs
+    @PostMapping("/backup")
+    public ResponseEntity<BackupDTO> backup() throws IOException {
+        try {
+            return ResponseEntity.status(HttpStatus.CREATED).body(databaseBackupService.backup());
+        } catch (IllegalStateException e) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package org.ostad._3_assignemnt.controller;
+
+import org.ostad._3_assignemnt.dto.ImportJobDTO;
+import org.ostad._3_assignemnt.importer.ContactImportService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/imports")
+public class ImportController {
+
+    @Autowired
+    private ContactImportService contactImportService;
+
+    // Accepts a CSV or NDJSON file and returns the queued job; poll GET /api/imports/{id} for progress
+    @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<ImportJobDTO> startImport(@RequestParam("file") MultipartFile file) throws IOException {
+        try {
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(contactImportService.startImport(file));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
+    @GetMapping
+    public ResponseEntity<List<ImportJobDTO>> getImports() {
+        return ResponseEntity.ok(contactImportService.getJobs());
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<ImportJobDTO> getImport(@PathVariable Long id) {
+        return contactImportService.getJob(id)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    // Resumes a failed job after its last committed batch
+    @PostMapping("/{id}/restart")
+    public ResponseEntity<ImportJobDTO> restartImport(@PathVariable Long id) {
+        if (contactImportService.getJob(id).isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        try {
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(contactImportService.restartImport(id));
+        } catch (IllegalStateException e) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, e.getMessage());
+        }
+    }
+}
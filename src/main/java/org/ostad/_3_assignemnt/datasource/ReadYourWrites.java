@@ -0,0 +1,109 @@
+package org.ostad._3_assignemnt.datasource;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.ostad._3_assignemnt.event.ContactsWrittenEvent;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.WebUtils;
+
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * Read-your-writes for the replica-routed API. Once a request has changed contacts, the rest of that
+ * request and the client's requests during the next {@code contacts.datasource.read-your-writes}
+ * read from the primary. The deadline travels in a cookie, so it follows the client across requests
+ * and application instances rather than a server thread.
+ * <p>
+ * As a {@link TaskDecorator} it carries the pin over to work the request hands to other threads
+ * (scatter-gather queries, async MVC tasks), which would otherwise read from a replica.
+ */
+public class ReadYourWrites extends OncePerRequestFilter implements TaskDecorator {
+
+    static final String COOKIE = "contacts-read-primary-until";
+
+    private final ThreadLocal<Boolean> pinned = new ThreadLocal<>();
+    private final Duration window;
+
+    public ReadYourWrites(Duration window) {
+        this.window = window;
+    }
+
+    public boolean isPinned() {
+        return Boolean.TRUE.equals(pinned.get());
+    }
+
+    /** Makes the current thread read from the primary until {@link #unpin()}. */
+    public void pin() {
+        pinned.set(Boolean.TRUE);
+    }
+
+    public void unpin() {
+        pinned.remove();
+    }
+
+    @Override
+    public Runnable decorate(Runnable task) {
+        if (!isPinned()) {
+            return task;
+        }
+        return () -> {
+            boolean wasPinned = isPinned();
+            pin();
+            try {
+                task.run();
+            } finally {
+                if (!wasPinned) {
+                    unpin();
+                }
+            }
+        };
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (primaryUntil(request) > System.currentTimeMillis()) {
+            pin();
+        }
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            unpin();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onContactsWritten(ContactsWrittenEvent event) {
+        // Only web requests get a window; the filter clears the pin when the request ends
+        if (window.isZero() || !(RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes)
+                || attributes.getResponse() == null) {
+            return;
+        }
+        pin();
+        Cookie cookie = new Cookie(COOKIE, Long.toString(System.currentTimeMillis() + window.toMillis()));
+        cookie.setPath("/");
+        cookie.setHttpOnly(true);
+        cookie.setMaxAge((int) Math.max(1, window.toSeconds()));
+        attributes.getResponse().addCookie(cookie);
+    }
+
+    private static long primaryUntil(HttpServletRequest request) {
+        Cookie cookie = WebUtils.getCookie(request, COOKIE);
+        if (cookie == null) {
+            return 0;
+        }
+        try {
+            return Long.parseLong(cookie.getValue());
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package org.ostad._3_assignemnt.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Read/write routing, active when {@code contacts.datasource.replicas} lists replica JDBC URLs.
+ * <p>
+ * The application datasource is a {@link LazyConnectionDataSourceProxy}: it only picks a physical
+ * connection at the first statement, after the transaction has marked the connection read-only. So
+ * {@code @Transactional(readOnly = true)} work goes to the {@link ReplicaPool} and everything else to
+ * the primary (spring.datasource.*). Replicas use the primary's credentials and spring.datasource.hikari.*
+ * settings, except for a short connection timeout ({@code contacts.datasource.replica-connection-timeout}):
+ * a replica that cannot hand out a connection quickly is ejected and the read moves on.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "contacts.datasource", name = "replicas")
+public class ReplicaRoutingConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    public ReadYourWrites readYourWrites(@Value("${contacts.datasource.read-your-writes:2s}") Duration window) {
+        return new ReadYourWrites(window);
+    }
+
+    @Bean
+    public ReplicaPool replicaPool(HikariDataSource primaryDataSource, DataSourceProperties properties,
+                                   ReadYourWrites readYourWrites, Environment environment,
+                                   @Value("${contacts.datasource.replicas}") String[] urls,
+                                   @Value("${contacts.datasource.replica-pool-size:16}") int poolSize,
+                                   @Value("${contacts.datasource.replica-connection-timeout:1s}") Duration connectionTimeout,
+                                   @Value("${contacts.datasource.replica-check-interval:5s}") Duration checkInterval) {
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        for (int i = 0; i < urls.length; i++) {
+            HikariDataSource replica = properties.initializeDataSourceBuilder()
+                    .type(HikariDataSource.class)
+                    .build();
+            Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(replica));
+            replica.setJdbcUrl(urls[i].trim());
+            replica.setPoolName("replica-" + (i + 1));
+            replica.setMaximumPoolSize(poolSize);
+            replica.setConnectionTimeout(connectionTimeout.toMillis());
+            replica.setReadOnly(true);
+            replicas.put(replica.getPoolName(), replica);
+        }
+        return new ReplicaPool(primaryDataSource, replicas, readYourWrites, checkInterval);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource, ReplicaPool replicaPool) {
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(primaryDataSource);
+        dataSource.setReadOnlyDataSource(replicaPool);
+        return dataSource;
+    }
+}
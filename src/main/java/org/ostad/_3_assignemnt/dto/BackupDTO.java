@@ -0,0 +1,17 @@
+package org.ostad._3_assignemnt.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BackupDTO {
+    private String file;
+    private long sizeBytes;
+    private long durationMs;
+    private LocalDateTime createdAt;
+}
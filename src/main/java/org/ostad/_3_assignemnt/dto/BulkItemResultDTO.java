@@ -0,0 +1,22 @@
+package org.ostad._3_assignemnt.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of one item of a bulk request; {@code index} is the item's position in the request body.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkItemResultDTO {
+    private int index;
+    private Long id;
+    private Status status;
+    private String error;
+
+    public enum Status {
+        CREATED, UPDATED, DELETED, NOT_FOUND, FAILED
+    }
+}
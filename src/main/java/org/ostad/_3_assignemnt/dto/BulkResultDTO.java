@@ -0,0 +1,16 @@
+package org.ostad._3_assignemnt.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkResultDTO {
+    private int succeeded;
+    private int failed;
+    private List<BulkItemResultDTO> items;
+}
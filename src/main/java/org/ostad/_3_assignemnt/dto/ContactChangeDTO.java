@@ -0,0 +1,18 @@
+package org.ostad._3_assignemnt.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ContactChangeDTO {
+    private Long offset;
+    private Long contactId;
+    private String type;
+    private ContactDTO contact;
+    private LocalDateTime changedAt;
+}
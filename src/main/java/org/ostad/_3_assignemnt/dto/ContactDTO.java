@@ -33,4 +33,7 @@ public class ContactDTO {
     private String category;
 
     private LocalDateTime creationDate;
+
+    // Optimistic-lock version; also the contact's ETag
+    private Long version;
 }
\ No newline at end of file
@@ -0,0 +1,26 @@
+package org.ostad._3_assignemnt.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Optional filters of the advanced search; only the ones that are set become predicates.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ContactSearchCriteria {
+    private String firstName;
+    private String lastName;
+    private String category;
+    private List<String> categories;
+    private Boolean isActive;
+    private String emailDomain;
+    private String phonePrefix;
+    private LocalDateTime createdAfter;
+    private LocalDateTime createdBefore;
+}
@@ -0,0 +1,13 @@
+package org.ostad._3_assignemnt.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DomainCountDTO {
+    private String domain;
+    private Long count;
+}
\ No newline at end of file
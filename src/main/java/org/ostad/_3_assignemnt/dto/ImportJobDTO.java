@@ -0,0 +1,25 @@
+package org.ostad._3_assignemnt.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportJobDTO {
+    private Long id;
+    private String fileName;
+    private String format;
+    private String status;
+    private long rowsProcessed;
+    private long rowsImported;
+    private long rowsRejected;
+    private long rowsDuplicate;
+    private double rowsPerSecond;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private String error;
+}
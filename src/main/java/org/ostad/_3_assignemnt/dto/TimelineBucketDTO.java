@@ -0,0 +1,16 @@
+package org.ostad._3_assignemnt.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TimelineBucketDTO {
+    private LocalDateTime bucketStart;
+    private String category;
+    private Long count;
+}
@@ -6,18 +6,31 @@ import jakarta.validation.constraints.NotBlank;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.DynamicUpdate;
 
 import java.time.LocalDateTime;
+import java.util.Locale;
 
 @Entity
-@Table(name = "contacts")
+@Table(name = "contacts", indexes = {
+        @Index(name = "ux_contacts_email", columnList = "email", unique = true),
+        @Index(name = "idx_contacts_phone_no", columnList = "phone_no"),
+        @Index(name = "idx_contacts_first_name", columnList = "first_name"),
+        @Index(name = "idx_contacts_last_name", columnList = "last_name"),
+        @Index(name = "idx_contacts_category_active_created", columnList = "category, is_active, creation_date, id"),
+        @Index(name = "idx_contacts_active_created", columnList = "is_active, creation_date"),
+        @Index(name = "idx_contacts_creation_date", columnList = "creation_date"),
+        @Index(name = "idx_contacts_email_domain", columnList = "email_domain")
+})
+@DynamicUpdate
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Contact {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "contacts_seq")
+    @SequenceGenerator(name = "contacts_seq", sequenceName = "contacts_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank(message = "First name is required")
@@ -37,6 +50,10 @@ public class Contact {
     @Column(nullable = false)
     private String email;
 
+    // Lower-cased part of the email after '@'; nullable only so ddl-auto can add it to existing tables
+    @Column(name = "email_domain")
+    private String emailDomain;
+
     @Column(name = "is_active", nullable = false)
     private Boolean isActive = true;
 
@@ -47,11 +64,33 @@ public class Contact {
     @Column(name = "creation_date", nullable = false, updatable = false)
     private LocalDateTime creationDate;
 
+    // Existing rows start at 0 when ddl-auto adds the column
+    @Version
+    @Column(nullable = false, columnDefinition = "BIGINT DEFAULT 0 NOT NULL")
+    private Long version;
+
     @PrePersist
     protected void onCreate() {
         this.creationDate = LocalDateTime.now();
         if (this.isActive == null) {
             this.isActive = true;
         }
+        this.emailDomain = emailDomainOf(this.email);
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        this.emailDomain = emailDomainOf(this.email);
+    }
+
+    public static String emailDomainOf(String email) {
+        if (email == null || email.indexOf('@') < 0) {
+            return null;
+        }
+        return normalizeEmailDomain(email.substring(email.indexOf('@') + 1));
+    }
+
+    public static String normalizeEmailDomain(String domain) {
+        return domain == null ? null : domain.trim().toLowerCase(Locale.ROOT);
     }
 }
\ No newline at end of file
@@ -0,0 +1,44 @@
+package org.ostad._3_assignemnt.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * One row of the contact change log (transactional outbox). Offsets are assigned in commit order
+ * and never reused, so a consumer can resume from the last offset it processed.
+ */
+@Entity
+@Table(name = "contact_changes", indexes = {
+        @Index(name = "idx_contact_changes_contact_id", columnList = "contact_id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ContactChange {
+
+    @Id
+    @Column(name = "change_offset")
+    private Long changeOffset;
+
+    @Column(name = "contact_id", nullable = false)
+    private Long contactId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Type type;
+
+    // ContactDTO as JSON: the new state, or the last state for deletes
+    @Column(nullable = false, length = 4000)
+    private String payload;
+
+    @Column(name = "changed_at", nullable = false)
+    private LocalDateTime changedAt;
+
+    public enum Type {
+        CREATED, UPDATED, DELETED
+    }
+}
@@ -0,0 +1,26 @@
+package org.ostad._3_assignemnt.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Single-row table holding the last assigned change offset. Writers lock the row while they append,
+ * which orders offsets by commit: a lower offset can never become visible after a higher one.
+ */
+@Entity
+@Table(name = "contact_change_log_head")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ContactChangeLogHead {
+
+    public static final long ID = 1L;
+
+    @Id
+    private Long id;
+
+    @Column(name = "last_offset", nullable = false)
+    private long lastOffset;
+}
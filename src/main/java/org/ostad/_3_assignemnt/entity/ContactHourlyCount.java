@@ -0,0 +1,41 @@
+package org.ostad._3_assignemnt.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * Number of contacts created per hour and category. Maintained incrementally with every contact
+ * write (see ContactTimelineRollup), so timeline queries read buckets instead of contact rows.
+ */
+@Entity
+@Table(name = "contact_hourly_counts")
+@IdClass(ContactHourlyCount.Key.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ContactHourlyCount {
+
+    @Id
+    @Column(name = "bucket_start", nullable = false)
+    private LocalDateTime bucketStart;
+
+    @Id
+    @Column(nullable = false)
+    private String category;
+
+    @Column(name = "contact_count", nullable = false)
+    private long contactCount;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private LocalDateTime bucketStart;
+        private String category;
+    }
+}
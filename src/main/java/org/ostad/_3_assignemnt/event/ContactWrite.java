@@ -0,0 +1,28 @@
+package org.ostad._3_assignemnt.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.ostad._3_assignemnt.dto.ContactDTO;
+
+/**
+ * Before and after image of one contact touched by a write.
+ * {@code previous} is null for a create, {@code current} is null for a delete.
+ */
+@Getter
+@AllArgsConstructor
+public class ContactWrite {
+    private final ContactDTO previous;
+    private final ContactDTO current;
+
+    public Long getId() {
+        return current != null ? current.getId() : previous.getId();
+    }
+
+    public boolean isCreate() {
+        return previous == null;
+    }
+
+    public boolean isDelete() {
+        return current == null;
+    }
+}
@@ -0,0 +1,50 @@
+package org.ostad._3_assignemnt.event;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Holds the write events that arrive while an in-memory read structure is rebuilt from the table.
+ * <p>
+ * A rebuild reads its snapshot without blocking writers. Listeners keep applying events to the old copy
+ * and also {@link #offer} them here. Once the snapshot is loaded, {@link #drainAfter} returns the events
+ * the snapshot may have missed, in commit (change offset) order, so they can be replayed onto the new
+ * copy before it is swapped in. Not thread-safe: callers use it under their own lock.
+ */
+public final class ContactWriteBuffer {
+
+    private List<ContactsWrittenEvent> events;
+
+    public void start() {
+        events = new ArrayList<>();
+    }
+
+    public boolean isBuffering() {
+        return events != null;
+    }
+
+    public void offer(ContactsWrittenEvent event) {
+        if (events != null) {
+            events.add(event);
+        }
+    }
+
+    /**
+     * Stops buffering and returns the events committed after {@code snapshotOffset}, oldest first.
+     * Events without an offset are always returned.
+     */
+    public List<ContactsWrittenEvent> drainAfter(long snapshotOffset) {
+        List<ContactsWrittenEvent> drained = events == null ? List.of() : events.stream()
+                .filter(event -> event.getChangeOffset() == 0 || event.getChangeOffset() > snapshotOffset)
+                .sorted(Comparator.comparingLong(ContactsWrittenEvent::getChangeOffset))
+                .collect(Collectors.toList());
+        events = null;
+        return drained;
+    }
+
+    public void cancel() {
+        events = null;
+    }
+}
@@ -0,0 +1,21 @@
+package org.ostad._3_assignemnt.event;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * Published by ContactService for every transaction that creates, updates or deletes contacts.
+ * In-process read structures listen for it after commit to stay in sync with the table.
+ */
+@Getter
+@RequiredArgsConstructor
+public class ContactsWrittenEvent {
+    private final List<ContactWrite> writes;
+
+    // Last change log offset assigned to these writes before commit; 0 if the change log did not run
+    @Setter
+    private volatile long changeOffset;
+}
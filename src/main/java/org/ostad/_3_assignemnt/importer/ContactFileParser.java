@@ -0,0 +1,151 @@
+package org.ostad._3_assignemnt.importer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.ostad._3_assignemnt.dto.ContactDTO;
+import org.ostad._3_assignemnt.entity.ImportJob;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads an import file one row at a time.
+ * <p>
+ * CSV files need a header naming the ContactDTO fields (firstName, lastName, phoneNo, email, category
+ * and optionally isActive); quoted fields may contain commas, doubled quotes and line breaks.
+ * NDJSON files hold one ContactDTO document per line, as written by the /stream export endpoints.
+ */
+class ContactFileParser implements Closeable {
+
+    private final BufferedReader reader;
+    private final ImportJob.Format format;
+    private final ObjectMapper objectMapper;
+    private final Map<String, Integer> columns = new HashMap<>();
+    private long rowNumber;
+
+    ContactFileParser(Path file, ImportJob.Format format, ObjectMapper objectMapper) throws IOException {
+        this.reader = Files.newBufferedReader(file, StandardCharsets.UTF_8);
+        this.format = format;
+        this.objectMapper = objectMapper;
+        if (format == ImportJob.Format.CSV) {
+            String header = reader.readLine();
+            if (header == null) {
+                throw new IOException("CSV file is empty");
+            }
+            List<String> names = splitCsv(header.startsWith("﻿") ? header.substring(1) : header);
+            for (int i = 0; i < names.size(); i++) {
+                columns.put(names.get(i).trim(), i);
+            }
+            for (String required : List.of("firstName", "lastName", "phoneNo", "email", "category")) {
+                if (!columns.containsKey(required)) {
+                    throw new IOException("CSV header is missing column '" + required + "'");
+                }
+            }
+        }
+    }
+
+    /** Returns the next data row, or null at the end of the file. Blank lines are skipped. */
+    ParsedRow next() throws IOException {
+        String line;
+        do {
+            line = reader.readLine();
+            if (line == null) {
+                return null;
+            }
+        } while (line.isBlank());
+        rowNumber++;
+        if (format == ImportJob.Format.CSV) {
+            // A quoted field with a line break continues on the next line
+            StringBuilder record = new StringBuilder(line);
+            while (!isClosed(record)) {
+                String more = reader.readLine();
+                if (more == null) {
+                    return new ParsedRow(rowNumber, null, "Row " + rowNumber + ": unterminated quoted field");
+                }
+                record.append('\n').append(more);
+            }
+            line = record.toString();
+        }
+        try {
+            ContactDTO contact = format == ImportJob.Format.CSV
+                    ? fromCsv(splitCsv(line))
+                    : objectMapper.readValue(line, ContactDTO.class);
+            return new ParsedRow(rowNumber, contact, null);
+        } catch (IOException | IllegalArgumentException e) {
+            return new ParsedRow(rowNumber, null, "Row " + rowNumber + ": " + e.getMessage());
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private ContactDTO fromCsv(List<String> values) {
+        ContactDTO contact = new ContactDTO();
+        contact.setFirstName(value(values, "firstName"));
+        contact.setLastName(value(values, "lastName"));
+        contact.setPhoneNo(value(values, "phoneNo"));
+        contact.setEmail(value(values, "email"));
+        contact.setCategory(value(values, "category"));
+        String isActive = value(values, "isActive");
+        if (isActive != null && !isActive.isBlank()) {
+            if (!isActive.equalsIgnoreCase("true") && !isActive.equalsIgnoreCase("false")) {
+                throw new IllegalArgumentException("isActive must be true or false");
+            }
+            contact.setIsActive(Boolean.valueOf(isActive));
+        }
+        return contact;
+    }
+
+    private String value(List<String> values, String column) {
+        Integer index = columns.get(column);
+        return index != null && index < values.size() ? values.get(index).trim() : null;
+    }
+
+    // Doubled quotes add two, so an odd count means a quoted field is still open
+    static boolean isClosed(CharSequence record) {
+        int quotes = 0;
+        for (int i = 0; i < record.length(); i++) {
+            if (record.charAt(i) == '"') {
+                quotes++;
+            }
+        }
+        return quotes % 2 == 0;
+    }
+
+    static List<String> splitCsv(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        values.add(current.toString());
+        return values;
+    }
+}
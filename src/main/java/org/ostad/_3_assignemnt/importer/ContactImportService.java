@@ -0,0 +1,381 @@
+package org.ostad._3_assignemnt.importer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.Validator;
+import org.ostad._3_assignemnt.concurrency.BulkheadFullException;
+import org.ostad._3_assignemnt.dto.ContactDTO;
+import org.ostad._3_assignemnt.dto.ImportJobDTO;
+import org.ostad._3_assignemnt.entity.ImportJob;
+import org.ostad._3_assignemnt.repository.ContactRepository;
+import org.ostad._3_assignemnt.repository.ImportJobRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+/**
+ * Runs contact file imports in the background as a three-stage pipeline:
+ * <ol>
+ *     <li>parse - reads the file row by row,</li>
+ *     <li>validate - applies the ContactDTO constraints and drops emails already seen in this run or in the database,</li>
+ *     <li>write - inserts each batch through {@link org.ostad._3_assignemnt.service.ContactService#bulkCreateContacts} and commits the job's progress with it.</li>
+ * </ol>
+ * The stages are connected by bounded queues, so a slow database stalls the parser instead of
+ * letting parsed rows pile up in memory. Failed or interrupted jobs resume after the last committed row.
+ */
+@Service
+public class ContactImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(ContactImportService.class);
+
+    private static final int BATCH_QUEUE_CAPACITY = 4;
+    private static final long POLL_MILLIS = 100;
+    private static final long BULKHEAD_RETRY_MILLIS = 200;
+
+    @Autowired
+    private ImportJobRepository importJobRepository;
+
+    @Autowired
+    private ContactRepository contactRepository;
+
+    @Autowired
+    private ImportBatchWriter importBatchWriter;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${contacts.import.dir:${java.io.tmpdir}/contact-imports}")
+    private String importDir;
+
+    @Value("${contacts.import.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${contacts.import.queue-capacity:10000}")
+    private int queueCapacity;
+
+    private final ExecutorService jobExecutor;
+
+    public ContactImportService(@Value("${contacts.import.max-concurrent-jobs:1}") int maxConcurrentJobs) {
+        AtomicInteger threads = new AtomicInteger();
+        this.jobExecutor = Executors.newFixedThreadPool(maxConcurrentJobs,
+                task -> new Thread(task, "contact-import-" + threads.incrementAndGet()));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        jobExecutor.shutdownNow();
+    }
+
+    // Jobs still marked as running were cut off by a shutdown; they can be restarted
+    @EventListener(ApplicationReadyEvent.class)
+    public void failInterruptedJobs() {
+        List<ImportJob> interrupted = importJobRepository.findByStatusIn(
+                List.of(ImportJob.Status.QUEUED, ImportJob.Status.RUNNING));
+        for (ImportJob job : interrupted) {
+            job.setStatus(ImportJob.Status.FAILED);
+            job.setError("Interrupted by shutdown; restart to resume after row " + job.getLastCommittedRow());
+            job.setFinishedAt(LocalDateTime.now());
+        }
+        importJobRepository.saveAll(interrupted);
+    }
+
+    // ============= Jobs =============
+
+    public ImportJobDTO startImport(MultipartFile file) throws IOException {
+        String fileName = Optional.ofNullable(file.getOriginalFilename()).orElse("upload");
+        ImportJob.Format format = formatOf(fileName, file.getContentType());
+
+        Path dir = Paths.get(importDir);
+        Files.createDirectories(dir);
+        Path stored = Files.createTempFile(dir, "import-", format == ImportJob.Format.CSV ? ".csv" : ".ndjson");
+        file.transferTo(stored);
+
+        ImportJob job = new ImportJob();
+        job.setFileName(fileName);
+        job.setStoredPath(stored.toString());
+        job.setFormat(format);
+        job.setStatus(ImportJob.Status.QUEUED);
+        job = importJobRepository.save(job);
+
+        submit(job);
+        return toDTO(job);
+    }
+
+    public Optional<ImportJobDTO> getJob(Long id) {
+        return importJobRepository.findById(id).map(this::toDTO);
+    }
+
+    public List<ImportJobDTO> getJobs() {
+        return importJobRepository.findAll().stream()
+                .map(this::toDTO)
+                .collect(Collectors.toList());
+    }
+
+    public ImportJobDTO restartImport(Long id) {
+        ImportJob job = importJobRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Import job not found with id: " + id));
+        if (job.getStatus() != ImportJob.Status.FAILED) {
+            throw new IllegalStateException("Only failed imports can be restarted; job " + id + " is " + job.getStatus());
+        }
+        if (!Files.exists(Paths.get(job.getStoredPath()))) {
+            throw new IllegalStateException("Uploaded file for import job " + id + " is no longer available");
+        }
+        // Compare-and-set on the status, so two concurrent restarts cannot both submit the job
+        if (importJobRepository.requeueIfFailed(id) == 0) {
+            throw new IllegalStateException("Import job " + id + " is already being restarted");
+        }
+        job = importJobRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Import job not found with id: " + id));
+
+        submit(job);
+        return toDTO(job);
+    }
+
+    private void submit(ImportJob job) {
+        Long jobId = job.getId();
+        jobExecutor.execute(() -> run(jobId));
+    }
+
+    private void run(Long jobId) {
+        ImportJob job = importJobRepository.findById(jobId).orElse(null);
+        if (job == null) {
+            return;
+        }
+        job.setStatus(ImportJob.Status.RUNNING);
+        job.setRunStartRow(job.getLastCommittedRow());
+        job.setStartedAt(LocalDateTime.now());
+        importJobRepository.save(job);
+
+        Path file = Paths.get(job.getStoredPath());
+        try {
+            runPipeline(jobId, file, job.getFormat(), job.getLastCommittedRow());
+            finish(jobId, ImportJob.Status.COMPLETED, null);
+            Files.deleteIfExists(file);
+        } catch (Exception e) {
+            log.warn("Import job {} failed", jobId, e);
+            finish(jobId, ImportJob.Status.FAILED, String.valueOf(e.getMessage()));
+        }
+    }
+
+    private void finish(Long jobId, ImportJob.Status status, String error) {
+        importJobRepository.findById(jobId).ifPresent(job -> {
+            job.setStatus(status);
+            job.setError(error == null || error.length() <= 2000 ? error : error.substring(0, 2000));
+            job.setFinishedAt(LocalDateTime.now());
+            importJobRepository.save(job);
+        });
+    }
+
+    // ============= Pipeline =============
+
+    private void runPipeline(Long jobId, Path file, ImportJob.Format format, long skipRows) throws Exception {
+        BlockingQueue<ParsedRow> rows = new ArrayBlockingQueue<>(queueCapacity);
+        BlockingQueue<ImportBatch> batches = new ArrayBlockingQueue<>(BATCH_QUEUE_CAPACITY);
+        AtomicReference<Exception> failure = new AtomicReference<>();
+
+        Thread parser = stage("contact-import-" + jobId + "-parse", failure,
+                () -> parse(file, format, skipRows, rows, failure));
+        Thread checker = stage("contact-import-" + jobId + "-validate", failure,
+                () -> validate(rows, batches, failure));
+        parser.start();
+        checker.start();
+        try {
+            while (true) {
+                ImportBatch batch = take(batches, failure);
+                if (batch == ImportBatch.END) {
+                    break;
+                }
+                write(jobId, batch);
+            }
+        } catch (Exception e) {
+            failure.compareAndSet(null, e);
+        } finally {
+            parser.interrupt();
+            checker.interrupt();
+            parser.join();
+            checker.join();
+        }
+        if (failure.get() != null) {
+            throw failure.get();
+        }
+    }
+
+    private Thread stage(String name, AtomicReference<Exception> failure, Stage body) {
+        Thread thread = new Thread(() -> {
+            try {
+                body.run();
+            } catch (CancellationException e) {
+                // another stage failed first
+            } catch (Exception e) {
+                failure.compareAndSet(null, e);
+            }
+        }, name);
+        thread.setDaemon(true);
+        return thread;
+    }
+
+    private void parse(Path file, ImportJob.Format format, long skipRows,
+                       BlockingQueue<ParsedRow> rows, AtomicReference<Exception> failure) throws Exception {
+        try (ContactFileParser parser = new ContactFileParser(file, format, objectMapper)) {
+            ParsedRow row;
+            while ((row = parser.next()) != null) {
+                if (row.getRowNumber() > skipRows) {
+                    put(rows, row, failure);
+                }
+            }
+        }
+        put(rows, ParsedRow.END, failure);
+    }
+
+    // Emails queued by earlier batches of this run count as duplicates even before those batches commit
+    private void validate(BlockingQueue<ParsedRow> rows, BlockingQueue<ImportBatch> batches,
+                          AtomicReference<Exception> failure) throws Exception {
+        Set<String> seen = new HashSet<>();
+        List<ParsedRow> pending = new ArrayList<>(batchSize);
+        while (true) {
+            ParsedRow row = take(rows, failure);
+            if (row == ParsedRow.END) {
+                break;
+            }
+            pending.add(row);
+            if (pending.size() == batchSize) {
+                put(batches, toBatch(pending, seen), failure);
+                pending = new ArrayList<>(batchSize);
+            }
+        }
+        if (!pending.isEmpty()) {
+            put(batches, toBatch(pending, seen), failure);
+        }
+        put(batches, ImportBatch.END, failure);
+    }
+
+    private ImportBatch toBatch(List<ParsedRow> rows, Set<String> seen) {
+        List<ContactDTO> valid = new ArrayList<>(rows.size());
+        int rejected = 0;
+        for (ParsedRow row : rows) {
+            ContactDTO contact = row.getContact();
+            if (row.getError() != null || !validator.validate(contact).isEmpty()) {
+                rejected++;
+            } else {
+                valid.add(contact);
+            }
+        }
+
+        Set<String> taken = valid.isEmpty() ? Set.of() : new HashSet<>(contactRepository.findExistingEmails(
+                valid.stream().map(ContactDTO::getEmail).distinct().collect(Collectors.toList())));
+        List<ContactDTO> fresh = new ArrayList<>(valid.size());
+        for (ContactDTO contact : valid) {
+            if (!taken.contains(contact.getEmail()) && seen.add(contact.getEmail())) {
+                fresh.add(contact);
+            }
+        }
+        long lastRow = rows.get(rows.size() - 1).getRowNumber();
+        return new ImportBatch(lastRow, fresh, rejected, valid.size() - fresh.size());
+    }
+
+    // Imports share the "bulk" bulkhead with the REST bulk endpoints; wait for a permit instead of failing
+    private void write(Long jobId, ImportBatch batch) throws InterruptedException {
+        while (true) {
+            try {
+                importBatchWriter.write(jobId, batch);
+                return;
+            } catch (BulkheadFullException e) {
+                Thread.sleep(BULKHEAD_RETRY_MILLIS);
+            }
+        }
+    }
+
+    private static <T> void put(BlockingQueue<T> queue, T item, AtomicReference<Exception> failure)
+            throws InterruptedException {
+        while (!queue.offer(item, POLL_MILLIS, TimeUnit.MILLISECONDS)) {
+            if (failure.get() != null) {
+                throw new CancellationException();
+            }
+        }
+    }
+
+    private static <T> T take(BlockingQueue<T> queue, AtomicReference<Exception> failure)
+            throws InterruptedException {
+        T item;
+        while ((item = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS)) == null) {
+            if (failure.get() != null) {
+                throw new CancellationException();
+            }
+        }
+        return item;
+    }
+
+    // ============= Helper Methods =============
+
+    private static ImportJob.Format formatOf(String fileName, String contentType) {
+        String name = fileName.toLowerCase(Locale.ROOT);
+        if (name.endsWith(".csv") || "text/csv".equals(contentType)) {
+            return ImportJob.Format.CSV;
+        }
+        if (name.endsWith(".ndjson") || name.endsWith(".jsonl") || name.endsWith(".json")
+                || "application/x-ndjson".equals(contentType)) {
+            return ImportJob.Format.NDJSON;
+        }
+        throw new IllegalArgumentException("Unsupported import file: " + fileName + " (expected .csv or .ndjson)");
+    }
+
+    private ImportJobDTO toDTO(ImportJob job) {
+        double rowsPerSecond = 0;
+        if (job.getStartedAt() != null) {
+            LocalDateTime end = job.getFinishedAt() != null ? job.getFinishedAt() : LocalDateTime.now();
+            long millis = Duration.between(job.getStartedAt(), end).toMillis();
+            if (millis > 0) {
+                rowsPerSecond = (job.getLastCommittedRow() - job.getRunStartRow()) * 1000.0 / millis;
+            }
+        }
+        return new ImportJobDTO(
+                job.getId(),
+                job.getFileName(),
+                job.getFormat().name(),
+                job.getStatus().name(),
+                job.getLastCommittedRow(),
+                job.getRowsImported(),
+                job.getRowsRejected(),
+                job.getRowsDuplicate(),
+                rowsPerSecond,
+                job.getStartedAt(),
+                job.getFinishedAt(),
+                job.getError()
+        );
+    }
+
+    @FunctionalInterface
+    private interface Stage {
+        void run() throws Exception;
+    }
+}
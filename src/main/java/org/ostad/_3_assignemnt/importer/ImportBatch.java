@@ -0,0 +1,21 @@
+package org.ostad._3_assignemnt.importer;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.ostad._3_assignemnt.dto.ContactDTO;
+
+import java.util.List;
+
+/**
+ * Validated, de-duplicated rows ready to insert, up to and including file row {@code lastRow}.
+ */
+@Getter
+@AllArgsConstructor
+class ImportBatch {
+    static final ImportBatch END = new ImportBatch(-1, List.of(), 0, 0);
+
+    private final long lastRow;
+    private final List<ContactDTO> contacts;
+    private final int rejected;
+    private final int duplicates;
+}
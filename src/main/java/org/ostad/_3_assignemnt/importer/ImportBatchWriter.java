@@ -0,0 +1,36 @@
+package org.ostad._3_assignemnt.importer;
+
+import org.ostad._3_assignemnt.dto.BulkResultDTO;
+import org.ostad._3_assignemnt.entity.ImportJob;
+import org.ostad._3_assignemnt.repository.ImportJobRepository;
+import org.ostad._3_assignemnt.service.ContactService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Write stage of the import pipeline. The batch insert and the job's progress commit in one
+ * transaction, so a restarted job never re-inserts or skips a batch.
+ */
+@Component
+class ImportBatchWriter {
+
+    @Autowired
+    private ContactService contactService;
+
+    @Autowired
+    private ImportJobRepository importJobRepository;
+
+    @Transactional
+    public void write(Long jobId, ImportBatch batch) {
+        BulkResultDTO result = contactService.bulkCreateContacts(batch.getContacts());
+
+        // Loaded after the insert, which clears the persistence context
+        ImportJob job = importJobRepository.findById(jobId)
+                .orElseThrow(() -> new RuntimeException("Import job not found with id: " + jobId));
+        job.setRowsImported(job.getRowsImported() + result.getSucceeded());
+        job.setRowsRejected(job.getRowsRejected() + batch.getRejected() + result.getFailed());
+        job.setRowsDuplicate(job.getRowsDuplicate() + batch.getDuplicates());
+        job.setLastCommittedRow(batch.getLastRow());
+    }
+}
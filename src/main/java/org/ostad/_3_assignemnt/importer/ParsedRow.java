@@ -0,0 +1,18 @@
+package org.ostad._3_assignemnt.importer;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.ostad._3_assignemnt.dto.ContactDTO;
+
+/**
+ * One data row of an import file; {@code error} is set when the row could not be parsed.
+ */
+@Getter
+@AllArgsConstructor
+class ParsedRow {
+    static final ParsedRow END = new ParsedRow(-1, null, null);
+
+    private final long rowNumber;
+    private final ContactDTO contact;
+    private final String error;
+}
@@ -0,0 +1,151 @@
+package org.ostad._3_assignemnt.replica;
+
+import org.ostad._3_assignemnt.dto.CategoryCountDTO;
+import org.ostad._3_assignemnt.dto.ContactDTO;
+import org.ostad._3_assignemnt.event.ContactWriteBuffer;
+import org.ostad._3_assignemnt.event.ContactsWrittenEvent;
+import org.ostad._3_assignemnt.repository.ContactChangeRepository;
+import org.ostad._3_assignemnt.repository.ContactRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Optional in-process, column-oriented copy of the contacts table ({@code contacts.replica.enabled=true}).
+ * <p>
+ * Each contact occupies a slot across parallel primitive columns: ids, versions, creation dates as
+ * epoch microseconds, dictionary-encoded categories and bitsets for active/live. The four string
+ * fields are stored back to back as length-prefixed UTF-8 in an off-heap buffer. Filters and counts
+ * scan the columns without allocating per row; Strings and DTOs are only created for the result.
+ * <p>
+ * Built at startup and kept in sync after every committed contact write, like the name index.
+ */
+@Component
+@ConditionalOnProperty(name = "contacts.replica.enabled", havingValue = "true")
+public class ContactColumnStore {
+
+    private static final Logger log = LoggerFactory.getLogger(ContactColumnStore.class);
+
+    @Autowired
+    private ContactRepository contactRepository;
+
+    @Autowired
+    private ContactChangeRepository contactChangeRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ContactWriteBuffer buffer = new ContactWriteBuffer();
+    private ContactColumns columns = new ContactColumns();
+    private long snapshotOffset;
+    private volatile boolean ready;
+
+    // ============= Lifecycle =============
+
+    /**
+     * Loads fresh columns from the table without holding the lock, replays the writes committed
+     * meanwhile in commit order and swaps them in. Called at startup by WarmupRunner.
+     */
+    public void rebuild() {
+        long start = System.nanoTime();
+        lock.writeLock().lock();
+        try {
+            buffer.start();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        ContactColumns fresh = new ContactColumns();
+        long loadedOffset;
+        try {
+            // On the primary: the snapshot must include every write committed before the offset read
+            loadedOffset = new TransactionTemplate(transactionManager).execute(status -> {
+                long offset = contactChangeRepository.findLastOffset();
+                try (Stream<ContactDTO> contacts = contactRepository.streamAll()) {
+                    contacts.forEach(fresh::put);
+                }
+                return offset;
+            });
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                buffer.cancel();
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+
+        lock.writeLock().lock();
+        try {
+            // Some of these may already be in the snapshot; replayed in commit order the last write wins
+            buffer.drainAfter(loadedOffset).forEach(fresh::apply);
+            columns = fresh;
+            snapshotOffset = loadedOffset;
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Contact column store loaded {} contacts ({} KB off-heap) in {} ms",
+                fresh.size(), fresh.arenaBytes() / 1024, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onContactsWritten(ContactsWrittenEvent event) {
+        lock.writeLock().lock();
+        try {
+            buffer.offer(event);
+            // A listener that runs late may bring a write the current snapshot already contains
+            if (event.getChangeOffset() == 0 || event.getChangeOffset() > snapshotOffset) {
+                columns.apply(event);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // ============= Queries =============
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public List<ContactDTO> findByCategoryAndStatus(String category, boolean isActive) {
+        return read(c -> c.findByCategoryAndStatus(category, isActive));
+    }
+
+    /** Contacts created at or after {@code since}, newest first. */
+    public List<ContactDTO> findCreatedSince(LocalDateTime since) {
+        return read(c -> c.findCreatedSince(since));
+    }
+
+    public long activeCount(String category) {
+        return read(c -> c.activeCount(category));
+    }
+
+    public List<CategoryCountDTO> countsByCategory() {
+        return read(ContactColumns::countsByCategory);
+    }
+
+    private <T> T read(Function<ContactColumns, T> query) {
+        lock.readLock().lock();
+        try {
+            return query.apply(columns);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+}
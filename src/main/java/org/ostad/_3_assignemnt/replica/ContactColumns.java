@@ -0,0 +1,385 @@
+package org.ostad._3_assignemnt.replica;
+
+import org.ostad._3_assignemnt.dto.CategoryCountDTO;
+import org.ostad._3_assignemnt.dto.ContactDTO;
+import org.ostad._3_assignemnt.event.ContactWrite;
+import org.ostad._3_assignemnt.event.ContactsWrittenEvent;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The columns behind {@link ContactColumnStore}. Not thread-safe: the store guards one instance with its
+ * read-write lock and builds a fresh one on rebuild.
+ */
+final class ContactColumns {
+
+    private static final int INITIAL_SLOTS = 1024;
+    private static final int INITIAL_ARENA_BYTES = 1 << 20;
+    private static final long TOMBSTONE_TTL_NANOS = TimeUnit.MINUTES.toNanos(5);
+
+    // Columns, indexed by slot
+    private long[] ids;
+    private long[] versions;
+    private long[] createdMicros;
+    private int[] categories;
+    private int[] stringOffsets;
+    private BitSet active;
+    private BitSet live;
+    private int slots;
+    private int liveCount;
+    private LongIntHashMap slotById;
+
+    // Category dictionary and per-category counts, indexed by code
+    private final Map<String, Integer> categoryCodes = new HashMap<>();
+    private final List<String> categoryNames = new ArrayList<>();
+    private long[] totalByCategory = new long[16];
+    private long[] activeByCategory = new long[16];
+
+    // Off-heap string storage: [short length][UTF-8 bytes] for first name, last name, phone, email
+    private ByteBuffer arena;
+    private int garbageBytes;
+
+    // Deleted ids -> {version, deleted at}, oldest first, so a late write for a deleted contact is dropped
+    private final LinkedHashMap<Long, long[]> tombstones = new LinkedHashMap<>();
+
+    ContactColumns() {
+        ids = new long[INITIAL_SLOTS];
+        versions = new long[INITIAL_SLOTS];
+        createdMicros = new long[INITIAL_SLOTS];
+        categories = new int[INITIAL_SLOTS];
+        stringOffsets = new int[INITIAL_SLOTS];
+        active = new BitSet(INITIAL_SLOTS);
+        live = new BitSet(INITIAL_SLOTS);
+        slotById = new LongIntHashMap(INITIAL_SLOTS);
+        arena = ByteBuffer.allocateDirect(INITIAL_ARENA_BYTES);
+    }
+
+    int size() {
+        return liveCount;
+    }
+
+    int arenaBytes() {
+        return arena.position();
+    }
+
+    // ============= Queries =============
+
+    List<ContactDTO> findByCategoryAndStatus(String category, boolean isActive) {
+        Integer code = categoryCodes.get(category);
+        if (code == null) {
+            return List.of();
+        }
+        int[] matches = new int[(int) Math.min(isActive ? activeByCategory[code]
+                : totalByCategory[code] - activeByCategory[code], Integer.MAX_VALUE)];
+        int found = 0;
+        for (int slot = live.nextSetBit(0); slot >= 0 && found < matches.length; slot = live.nextSetBit(slot + 1)) {
+            if (categories[slot] == code && active.get(slot) == isActive) {
+                matches[found++] = slot;
+            }
+        }
+        return materialize(matches, found);
+    }
+
+    /** Contacts created at or after {@code since}, newest first. */
+    List<ContactDTO> findCreatedSince(LocalDateTime since) {
+        long threshold = toMicros(since);
+        int[] matches = new int[64];
+        int found = 0;
+        for (int slot = live.nextSetBit(0); slot >= 0; slot = live.nextSetBit(slot + 1)) {
+            if (createdMicros[slot] >= threshold) {
+                if (found == matches.length) {
+                    matches = Arrays.copyOf(matches, found * 2);
+                }
+                matches[found++] = slot;
+            }
+        }
+        sortNewestFirst(matches, 0, found - 1);
+        return materialize(matches, found);
+    }
+
+    long activeCount(String category) {
+        Integer code = categoryCodes.get(category);
+        return code != null ? activeByCategory[code] : 0;
+    }
+
+    List<CategoryCountDTO> countsByCategory() {
+        List<CategoryCountDTO> counts = new ArrayList<>(categoryNames.size());
+        for (int code = 0; code < categoryNames.size(); code++) {
+            if (totalByCategory[code] > 0) {
+                counts.add(new CategoryCountDTO(categoryNames.get(code), totalByCategory[code]));
+            }
+        }
+        counts.sort((a, b) -> a.getCategory().compareTo(b.getCategory()));
+        return counts;
+    }
+
+    // ============= Writes =============
+
+    void apply(ContactsWrittenEvent event) {
+        for (ContactWrite write : event.getWrites()) {
+            if (write.isDelete()) {
+                remove(write.getId(), write.getPrevious().getVersion());
+            } else {
+                put(write.getCurrent());
+            }
+        }
+    }
+
+    /**
+     * Stores the contact unless this copy already holds the same or a newer version of it, or it was
+     * deleted. After-commit listeners of concurrent transactions can run in any order.
+     */
+    void put(ContactDTO contact) {
+        if (isStale(contact.getId(), contact.getVersion())) {
+            return;
+        }
+        byte[][] strings = {
+                bytes(contact.getFirstName()), bytes(contact.getLastName()),
+                bytes(contact.getPhoneNo()), bytes(contact.getEmail())
+        };
+        // Both may compact and move slots, so they run before the slot is looked up
+        ensureArenaSpace(strings);
+        if (slots == ids.length) {
+            if (liveCount < slots / 2) {
+                compact(arena.capacity());
+            } else {
+                grow(slots * 2);
+            }
+        }
+
+        int slot = slotById.get(contact.getId());
+        if (slot >= 0) {
+            adjustCounts(slot, -1);
+            garbageBytes += recordLength(stringOffsets[slot]);
+        } else {
+            slot = slots++;
+            slotById.put(contact.getId(), slot);
+            live.set(slot);
+            liveCount++;
+        }
+        ids[slot] = contact.getId();
+        versions[slot] = contact.getVersion() != null ? contact.getVersion() : 0;
+        createdMicros[slot] = toMicros(contact.getCreationDate());
+        categories[slot] = categoryCode(contact.getCategory());
+        active.set(slot, Boolean.TRUE.equals(contact.getIsActive()));
+        stringOffsets[slot] = arena.position();
+        for (byte[] string : strings) {
+            arena.putShort((short) string.length);
+            arena.put(string);
+        }
+        adjustCounts(slot, 1);
+    }
+
+    void remove(long id, Long version) {
+        long deletedAt = System.nanoTime();
+        long[] tombstone = tombstones.get(id);
+        long deletedVersion = version != null ? version : Long.MAX_VALUE;
+        if (tombstone == null || tombstone[0] < deletedVersion) {
+            tombstones.put(id, new long[]{deletedVersion, deletedAt});
+        }
+        pruneTombstones(deletedAt);
+
+        int slot = slotById.get(id);
+        if (slot < 0) {
+            return;
+        }
+        adjustCounts(slot, -1);
+        garbageBytes += recordLength(stringOffsets[slot]);
+        slotById.remove(id);
+        live.clear(slot);
+        liveCount--;
+    }
+
+    private boolean isStale(long id, Long version) {
+        if (version == null) {
+            return false;
+        }
+        long[] tombstone = tombstones.get(id);
+        if (tombstone != null && version <= tombstone[0]) {
+            return true;
+        }
+        int slot = slotById.get(id);
+        return slot >= 0 && version <= versions[slot];
+    }
+
+    private void pruneTombstones(long now) {
+        Iterator<long[]> oldest = tombstones.values().iterator();
+        while (oldest.hasNext()) {
+            if (now - oldest.next()[1] < TOMBSTONE_TTL_NANOS) {
+                return;
+            }
+            oldest.remove();
+        }
+    }
+
+    private void adjustCounts(int slot, int delta) {
+        int code = categories[slot];
+        totalByCategory[code] += delta;
+        if (active.get(slot)) {
+            activeByCategory[code] += delta;
+        }
+    }
+
+    private int categoryCode(String category) {
+        Integer code = categoryCodes.get(category);
+        if (code == null) {
+            code = categoryNames.size();
+            categoryCodes.put(category, code);
+            categoryNames.add(category);
+            if (code == totalByCategory.length) {
+                totalByCategory = Arrays.copyOf(totalByCategory, code * 2);
+                activeByCategory = Arrays.copyOf(activeByCategory, code * 2);
+            }
+        }
+        return code;
+    }
+
+    private void ensureArenaSpace(byte[][] strings) {
+        int length = 0;
+        for (byte[] string : strings) {
+            length += Short.BYTES + string.length;
+        }
+        if (arena.remaining() < length) {
+            // Reclaim space from updated and deleted rows, growing the buffer if that is not enough
+            long needed = (long) arena.position() - garbageBytes + length;
+            compact((int) Math.min(Integer.MAX_VALUE - 8, Math.max(needed * 2, arena.capacity())));
+        }
+    }
+
+    private int recordLength(int offset) {
+        int position = offset;
+        for (int field = 0; field < 4; field++) {
+            position += Short.BYTES + (arena.getShort(position) & 0xFFFF);
+        }
+        return position - offset;
+    }
+
+    private void grow(int capacity) {
+        ids = Arrays.copyOf(ids, capacity);
+        versions = Arrays.copyOf(versions, capacity);
+        createdMicros = Arrays.copyOf(createdMicros, capacity);
+        categories = Arrays.copyOf(categories, capacity);
+        stringOffsets = Arrays.copyOf(stringOffsets, capacity);
+    }
+
+    // Moves live rows to the front of the columns and their strings into a fresh arena
+    private void compact(int arenaCapacity) {
+        ByteBuffer oldArena = arena;
+        ByteBuffer newArena = ByteBuffer.allocateDirect(arenaCapacity);
+        BitSet newLive = new BitSet(slots);
+        BitSet newActive = new BitSet(slots);
+        LongIntHashMap newSlots = new LongIntHashMap(liveCount);
+        int target = 0;
+        for (int slot = live.nextSetBit(0); slot >= 0; slot = live.nextSetBit(slot + 1)) {
+            int length = recordLength(stringOffsets[slot]);
+            int offset = newArena.position();
+            newArena.put(oldArena.slice(stringOffsets[slot], length));
+
+            ids[target] = ids[slot];
+            versions[target] = versions[slot];
+            createdMicros[target] = createdMicros[slot];
+            categories[target] = categories[slot];
+            stringOffsets[target] = offset;
+            newActive.set(target, active.get(slot));
+            newLive.set(target);
+            newSlots.put(ids[target], target);
+            target++;
+        }
+        arena = newArena;
+        active = newActive;
+        live = newLive;
+        slotById = newSlots;
+        slots = target;
+        garbageBytes = 0;
+        if (slots == ids.length) {
+            grow(Math.max(slots * 2, INITIAL_SLOTS));
+        }
+    }
+
+    // ============= Materialization =============
+
+    private List<ContactDTO> materialize(int[] matches, int found) {
+        List<ContactDTO> contacts = new ArrayList<>(found);
+        for (int i = 0; i < found; i++) {
+            int slot = matches[i];
+            int position = stringOffsets[slot];
+            String[] strings = new String[4];
+            for (int field = 0; field < 4; field++) {
+                int length = arena.getShort(position) & 0xFFFF;
+                byte[] bytes = new byte[length];
+                arena.get(position + Short.BYTES, bytes);
+                strings[field] = new String(bytes, StandardCharsets.UTF_8);
+                position += Short.BYTES + length;
+            }
+            contacts.add(new ContactDTO(ids[slot], strings[0], strings[1], strings[2], strings[3],
+                    active.get(slot), categoryNames.get(categories[slot]), fromMicros(createdMicros[slot]),
+                    versions[slot]));
+        }
+        return contacts;
+    }
+
+    // Quicksort of slots by creation date desc, then id desc (matches ORDER BY creationDate DESC)
+    private void sortNewestFirst(int[] slotsToSort, int low, int high) {
+        while (low < high) {
+            int pivot = slotsToSort[(low + high) >>> 1];
+            int i = low;
+            int j = high;
+            while (i <= j) {
+                while (newer(slotsToSort[i], pivot)) {
+                    i++;
+                }
+                while (newer(pivot, slotsToSort[j])) {
+                    j--;
+                }
+                if (i <= j) {
+                    int swap = slotsToSort[i];
+                    slotsToSort[i++] = slotsToSort[j];
+                    slotsToSort[j--] = swap;
+                }
+            }
+            // Recurse into the smaller half, loop over the larger one
+            if (j - low < high - i) {
+                sortNewestFirst(slotsToSort, low, j);
+                low = i;
+            } else {
+                sortNewestFirst(slotsToSort, i, high);
+                high = j;
+            }
+        }
+    }
+
+    private boolean newer(int a, int b) {
+        return createdMicros[a] != createdMicros[b] ? createdMicros[a] > createdMicros[b] : ids[a] > ids[b];
+    }
+
+    private static byte[] bytes(String value) {
+        return value != null ? value.getBytes(StandardCharsets.UTF_8) : new byte[0];
+    }
+
+    private static long toMicros(LocalDateTime dateTime) {
+        if (dateTime == null) {
+            return Long.MIN_VALUE;
+        }
+        return dateTime.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + dateTime.getNano() / 1_000;
+    }
+
+    private static LocalDateTime fromMicros(long micros) {
+        if (micros == Long.MIN_VALUE) {
+            return null;
+        }
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000),
+                (int) Math.floorMod(micros, 1_000_000) * 1_000, ZoneOffset.UTC);
+    }
+}
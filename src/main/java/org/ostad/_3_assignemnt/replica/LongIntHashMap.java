@@ -0,0 +1,103 @@
+package org.ostad._3_assignemnt.replica;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing map from long keys to non-negative int values, without boxing.
+ * Not thread-safe; ContactColumnStore guards it with its lock.
+ */
+final class LongIntHashMap {
+
+    private static final int MISSING = -1;
+
+    private long[] keys;
+    private int[] values;
+    private int size;
+    private int tombstones;
+
+    LongIntHashMap(int expected) {
+        int capacity = Integer.highestOneBit(Math.max(expected * 2, 16) - 1) << 1;
+        keys = new long[capacity];
+        values = new int[capacity];
+        Arrays.fill(values, MISSING);
+    }
+
+    int size() {
+        return size;
+    }
+
+    /** Returns the value for {@code key}, or -1. */
+    int get(long key) {
+        int mask = keys.length - 1;
+        for (int i = mix(key) & mask; ; i = (i + 1) & mask) {
+            if (values[i] == MISSING) {
+                return MISSING;
+            }
+            if (keys[i] == key && values[i] >= 0) {
+                return values[i];
+            }
+        }
+    }
+
+    void put(long key, int value) {
+        if ((size + tombstones + 1) * 2 > keys.length) {
+            resize(size * 2 + 2 > keys.length ? keys.length * 2 : keys.length);
+        }
+        int mask = keys.length - 1;
+        int free = -1;
+        for (int i = mix(key) & mask; ; i = (i + 1) & mask) {
+            if (values[i] == MISSING) {
+                if (free < 0) {
+                    free = i;
+                } else {
+                    tombstones--;
+                }
+                keys[free] = key;
+                values[free] = value;
+                size++;
+                return;
+            }
+            if (values[i] < MISSING && free < 0) {
+                free = i;
+            } else if (keys[i] == key && values[i] >= 0) {
+                values[i] = value;
+                return;
+            }
+        }
+    }
+
+    void remove(long key) {
+        int mask = keys.length - 1;
+        for (int i = mix(key) & mask; ; i = (i + 1) & mask) {
+            if (values[i] == MISSING) {
+                return;
+            }
+            if (keys[i] == key && values[i] >= 0) {
+                values[i] = MISSING - 1;
+                size--;
+                tombstones++;
+                return;
+            }
+        }
+    }
+
+    private void resize(int capacity) {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        keys = new long[capacity];
+        values = new int[capacity];
+        Arrays.fill(values, MISSING);
+        size = 0;
+        tombstones = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldValues[i] >= 0) {
+                put(oldKeys[i], oldValues[i]);
+            }
+        }
+    }
+
+    private static int mix(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
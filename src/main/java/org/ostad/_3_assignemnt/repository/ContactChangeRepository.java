@@ -0,0 +1,21 @@
+package org.ostad._3_assignemnt.repository;
+
+import org.ostad._3_assignemnt.entity.ContactChange;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ContactChangeRepository extends JpaRepository<ContactChange, Long> {
+
+    // Changes after the given offset, oldest first (primary key range scan)
+    @Query("SELECT c FROM ContactChange c WHERE c.changeOffset > :after ORDER BY c.changeOffset")
+    List<ContactChange> findAfter(@Param("after") long after, Pageable pageable);
+
+    @Query("SELECT COALESCE(MAX(c.changeOffset), 0) FROM ContactChange c")
+    long findLastOffset();
+}
@@ -0,0 +1,28 @@
+package org.ostad._3_assignemnt.repository;
+
+import org.ostad._3_assignemnt.entity.ContactHourlyCount;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface ContactHourlyCountRepository extends JpaRepository<ContactHourlyCount, ContactHourlyCount.Key> {
+
+    // Non-empty hourly buckets in [from, to), read off the primary key
+    @Query("SELECT h FROM ContactHourlyCount h WHERE h.bucketStart >= :from AND h.bucketStart < :to " +
+           "AND h.contactCount > 0 ORDER BY h.bucketStart, h.category")
+    List<ContactHourlyCount> findInRange(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    @Query("SELECT h FROM ContactHourlyCount h WHERE h.bucketStart >= :from AND h.bucketStart < :to " +
+           "AND h.category = :category AND h.contactCount > 0 ORDER BY h.bucketStart")
+    List<ContactHourlyCount> findInRangeByCategory(@Param("from") LocalDateTime from,
+                                                   @Param("to") LocalDateTime to,
+                                                   @Param("category") String category);
+
+    @Query("SELECT COALESCE(SUM(h.contactCount), 0) FROM ContactHourlyCount h")
+    long sumCounts();
+}
@@ -1,20 +1,38 @@
 package org.ostad._3_assignemnt.repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.ostad._3_assignemnt.entity.Contact;
+import org.ostad._3_assignemnt.dto.ContactDTO;
 import org.ostad._3_assignemnt.dto.ContactProjection;
+import org.ostad._3_assignemnt.dto.DomainCountDTO;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface ContactRepository extends JpaRepository<Contact, Long> {
+public interface ContactRepository extends JpaRepository<Contact, Long>, JpaSpecificationExecutor<Contact>,
+        ContactSearchRepository {
+
+    // Rows fetched per JDBC round trip by the streaming queries
+    String STREAM_FETCH_SIZE = "500";
+
+    // Constructor expression for read queries: rows go straight into DTOs, no managed entities
+    String DTO_SELECT = "SELECT new org.ostad._3_assignemnt.dto.ContactDTO(c.id, c.firstName, c.lastName, " +
+            "c.phoneNo, c.email, c.isActive, c.category, c.creationDate, c.version) FROM Contact c ";
 
     // ============= Derived Query Methods =============
 
@@ -63,6 +81,10 @@ public interface ContactRepository extends JpaRepository<Contact, Long> {
 
     // ============= Custom JPQL Queries =============
 
+    // Find which of the given emails are already taken
+    @Query("SELECT c.email FROM Contact c WHERE c.email IN :emails")
+    List<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
     // Find active contacts by category with pagination
     @Query("SELECT c FROM Contact c WHERE c.category = :category AND c.isActive = true")
     Page<Contact> findActiveContactsByCategory(@Param("category") String category, Pageable pageable);
@@ -85,37 +107,133 @@ public interface ContactRepository extends JpaRepository<Contact, Long> {
     @Query("SELECT c FROM Contact c WHERE c.creationDate >= :date ORDER BY c.creationDate DESC")
     List<Contact> findRecentContacts(@Param("date") LocalDateTime date);
 
-    // Find contacts with projection (name and email only)
-    @Query("SELECT c.firstName as firstName, c.lastName as lastName, c.email as email, " +
-           "c.category as category FROM Contact c WHERE c.isActive = true")
+    // Find active contacts with projection (every ContactProjection property)
+    @Query("SELECT c.id as id, c.firstName as firstName, c.lastName as lastName, c.phoneNo as phoneNo, " +
+           "c.email as email, c.category as category FROM Contact c WHERE c.isActive = true")
     List<ContactProjection> findAllActiveProjections();
 
     // Find contacts by category with projection
     @Query("SELECT c.id as id, c.firstName as firstName, c.lastName as lastName, " +
-           "c.phoneNo as phoneNo, c.email as email FROM Contact c WHERE c.category = :category")
+           "c.phoneNo as phoneNo, c.email as email, c.category as category FROM Contact c WHERE c.category = :category")
     List<ContactProjection> findByCategoryProjection(@Param("category") String category);
 
-    // Search contacts with multiple criteria
-    @Query("SELECT c FROM Contact c WHERE " +
-           "(:firstName IS NULL OR LOWER(c.firstName) LIKE LOWER(CONCAT('%', :firstName, '%'))) AND " +
-           "(:lastName IS NULL OR LOWER(c.lastName) LIKE LOWER(CONCAT('%', :lastName, '%'))) AND " +
-           "(:category IS NULL OR c.category = :category) AND " +
-           "(:isActive IS NULL OR c.isActive = :isActive)")
-    Page<Contact> searchContacts(@Param("firstName") String firstName,
-                                  @Param("lastName") String lastName,
-                                  @Param("category") String category,
-                                  @Param("isActive") Boolean isActive,
-                                  Pageable pageable);
+    // ============= Keyset (Seek) Pagination Queries =============
+    // Ordered by (creationDate, id) descending; the Pageable only carries the slice size.
+
+    // First slice of active contacts by category
+    @Query(DTO_SELECT + "WHERE c.category = :category AND c.isActive = true " +
+           "ORDER BY c.creationDate DESC, c.id DESC")
+    Slice<ContactDTO> findActiveContactsByCategoryFirst(@Param("category") String category, Pageable pageable);
+
+    // Next slice of active contacts by category, after the given (creationDate, id) key
+    @Query(DTO_SELECT + "WHERE c.category = :category AND c.isActive = true AND " +
+           "(c.creationDate < :afterDate OR (c.creationDate = :afterDate AND c.id < :afterId)) " +
+           "ORDER BY c.creationDate DESC, c.id DESC")
+    Slice<ContactDTO> findActiveContactsByCategoryAfter(@Param("category") String category,
+                                                        @Param("afterDate") LocalDateTime afterDate,
+                                                        @Param("afterId") Long afterId,
+                                                        Pageable pageable);
 
     // Get all categories with contact count
     @Query("SELECT c.category, COUNT(c) FROM Contact c GROUP BY c.category")
     List<Object[]> getContactCountByCategory();
 
-    // Find contacts by email domain
-    @Query("SELECT c FROM Contact c WHERE c.email LIKE CONCAT('%@', :domain)")
+    // Get contact count per email domain, largest first
+    @Query("SELECT new org.ostad._3_assignemnt.dto.DomainCountDTO(c.emailDomain, COUNT(c)) FROM Contact c " +
+           "WHERE c.emailDomain IS NOT NULL GROUP BY c.emailDomain ORDER BY COUNT(c) DESC, c.emailDomain")
+    List<DomainCountDTO> countByEmailDomain();
+
+    // Fill in email_domain for rows written before the column existed or inserted with plain SQL
+    @Modifying
+    @Query("UPDATE Contact c SET c.emailDomain = LOWER(TRIM(SUBSTRING(c.email, LOCATE('@', c.email) + 1))) " +
+           "WHERE c.emailDomain IS NULL AND LOCATE('@', c.email) > 0")
+    int backfillEmailDomains();
+
+    // Find contacts by email domain (expects a normalized domain, see Contact.normalizeEmailDomain)
+    @Query("SELECT c FROM Contact c WHERE c.emailDomain = :domain")
     List<Contact> findByEmailDomain(@Param("domain") String domain);
 
     // Update contact active status (native query example)
     @Query("SELECT c FROM Contact c WHERE c.id = :id")
     Optional<Contact> findContactById(@Param("id") Long id);
+
+    // ============= DTO Projection Queries (no entity hydration) =============
+
+    @Query(DTO_SELECT)
+    List<ContactDTO> findAllDtos();
+
+    @Query(DTO_SELECT + "WHERE c.firstName = :firstName")
+    List<ContactDTO> findDtosByFirstName(@Param("firstName") String firstName);
+
+    @Query(DTO_SELECT + "WHERE c.lastName = :lastName")
+    List<ContactDTO> findDtosByLastName(@Param("lastName") String lastName);
+
+    @Query(DTO_SELECT + "WHERE c.category = :category")
+    List<ContactDTO> findDtosByCategory(@Param("category") String category);
+
+    @Query(DTO_SELECT + "WHERE c.isActive = :isActive")
+    List<ContactDTO> findDtosByIsActive(@Param("isActive") Boolean isActive);
+
+    @Query(DTO_SELECT + "WHERE c.category = :category AND c.isActive = :isActive")
+    List<ContactDTO> findDtosByCategoryAndIsActive(@Param("category") String category,
+                                                   @Param("isActive") Boolean isActive);
+
+    @Query(DTO_SELECT + "WHERE c.creationDate > :date")
+    List<ContactDTO> findDtosCreatedAfter(@Param("date") LocalDateTime date);
+
+    @Query(DTO_SELECT + "WHERE c.creationDate BETWEEN :startDate AND :endDate")
+    List<ContactDTO> findDtosCreatedBetween(@Param("startDate") LocalDateTime startDate,
+                                            @Param("endDate") LocalDateTime endDate);
+
+    @Query(DTO_SELECT + "WHERE c.category IN :categories AND c.isActive = true " +
+           "ORDER BY c.creationDate DESC, c.id DESC")
+    List<ContactDTO> findDtosByCategories(@Param("categories") List<String> categories);
+
+    // One category of findDtosByCategories, in the same order (read straight off the category index)
+    @Query(DTO_SELECT + "WHERE c.category = :category AND c.isActive = true " +
+           "ORDER BY c.creationDate DESC, c.id DESC")
+    List<ContactDTO> findActiveDtosByCategoryNewestFirst(@Param("category") String category);
+
+    @Query(DTO_SELECT + "WHERE c.creationDate >= :date ORDER BY c.creationDate DESC")
+    List<ContactDTO> findRecentDtos(@Param("date") LocalDateTime date);
+
+    @Query(DTO_SELECT + "WHERE c.emailDomain = :domain")
+    List<ContactDTO> findDtosByEmailDomain(@Param("domain") String domain);
+
+    @Query(value = DTO_SELECT + "WHERE c.category = :category AND c.isActive = true",
+           countQuery = "SELECT COUNT(c) FROM Contact c WHERE c.category = :category AND c.isActive = true")
+    Page<ContactDTO> findActiveDtosByCategory(@Param("category") String category, Pageable pageable);
+
+    // ============= Streaming Queries (forward-only cursor) =============
+
+    // Stream all contacts
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE))
+    @Query(DTO_SELECT)
+    Stream<ContactDTO> streamAll();
+
+    // Stream contacts by active status
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE))
+    @Query(DTO_SELECT + "WHERE c.isActive = :isActive")
+    Stream<ContactDTO> streamByIsActive(@Param("isActive") Boolean isActive);
+
+    // Stream contacts by category
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE))
+    @Query(DTO_SELECT + "WHERE c.category = :category")
+    Stream<ContactDTO> streamByCategory(@Param("category") String category);
+
+    // Stream contacts created between two dates
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE))
+    @Query(DTO_SELECT + "WHERE c.creationDate BETWEEN :startDate AND :endDate")
+    Stream<ContactDTO> streamByCreationDateBetween(@Param("startDate") LocalDateTime startDate,
+                                                   @Param("endDate") LocalDateTime endDate);
+
+    // Stream contacts by email domain
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE))
+    @Query(DTO_SELECT + "WHERE c.emailDomain = :domain")
+    Stream<ContactDTO> streamByEmailDomain(@Param("domain") String domain);
+
+    // Stream (id, firstName, lastName, version) of every contact, used to build the name search index
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE))
+    @Query("SELECT c.id, c.firstName, c.lastName, c.version FROM Contact c")
+    Stream<Object[]> streamNames();
 }
\ No newline at end of file
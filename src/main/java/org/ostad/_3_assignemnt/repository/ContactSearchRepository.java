@@ -0,0 +1,27 @@
+package org.ostad._3_assignemnt.repository;
+
+import org.ostad._3_assignemnt.dto.ContactDTO;
+import org.ostad._3_assignemnt.entity.Contact;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Criteria-based search returning DTOs, for queries whose predicates are only known at runtime.
+ */
+public interface ContactSearchRepository {
+
+    // Page of matching contacts; the count query only runs when the page is full
+    Page<ContactDTO> searchDtos(Specification<Contact> specification, Pageable pageable);
+
+    // Next slice of matching contacts ordered by (creationDate, id) descending, without a count query
+    Slice<ContactDTO> searchDtoSlice(Specification<Contact> specification, int size);
+
+    // Page of matching contacts with only the given fields selected, one map (field -> value) per row
+    Page<Map<String, Object>> searchFields(Specification<Contact> specification, Collection<String> fields,
+                                           Pageable pageable);
+}
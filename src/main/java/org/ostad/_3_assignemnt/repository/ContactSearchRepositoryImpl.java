@@ -0,0 +1,114 @@
+package org.ostad._3_assignemnt.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CompoundSelection;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.ostad._3_assignemnt.dto.ContactDTO;
+import org.ostad._3_assignemnt.entity.Contact;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+public class ContactSearchRepositoryImpl implements ContactSearchRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Page<ContactDTO> searchDtos(Specification<Contact> specification, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<ContactDTO> query = cb.createQuery(ContactDTO.class);
+        Root<Contact> root = query.from(Contact.class);
+        query.select(dtoSelection(cb, root))
+                .where(specification.toPredicate(root, query, cb))
+                .orderBy(QueryUtils.toOrders(pageable.getSort(), root, cb));
+
+        TypedQuery<ContactDTO> typedQuery = entityManager.createQuery(query);
+        if (pageable.isPaged()) {
+            typedQuery.setFirstResult((int) pageable.getOffset());
+            typedQuery.setMaxResults(pageable.getPageSize());
+        }
+        return PageableExecutionUtils.getPage(typedQuery.getResultList(), pageable, () -> count(specification));
+    }
+
+    @Override
+    public Slice<ContactDTO> searchDtoSlice(Specification<Contact> specification, int size) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<ContactDTO> query = cb.createQuery(ContactDTO.class);
+        Root<Contact> root = query.from(Contact.class);
+        query.select(dtoSelection(cb, root))
+                .where(specification.toPredicate(root, query, cb))
+                .orderBy(cb.desc(root.get("creationDate")), cb.desc(root.get("id")));
+
+        // Fetch one extra row to learn whether another slice follows
+        List<ContactDTO> content = entityManager.createQuery(query)
+                .setMaxResults(size + 1)
+                .getResultList();
+        boolean hasNext = content.size() > size;
+        return new SliceImpl<>(hasNext ? content.subList(0, size) : content, PageRequest.of(0, size), hasNext);
+    }
+
+    @Override
+    public Page<Map<String, Object>> searchFields(Specification<Contact> specification, Collection<String> fields,
+                                                  Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Contact> root = query.from(Contact.class);
+        List<Selection<?>> selections = fields.stream()
+                .<Selection<?>>map(field -> root.get(field).alias(field))
+                .collect(Collectors.toList());
+        query.multiselect(selections)
+                .where(specification.toPredicate(root, query, cb))
+                .orderBy(QueryUtils.toOrders(pageable.getSort(), root, cb));
+
+        TypedQuery<Tuple> typedQuery = entityManager.createQuery(query);
+        if (pageable.isPaged()) {
+            typedQuery.setFirstResult((int) pageable.getOffset());
+            typedQuery.setMaxResults(pageable.getPageSize());
+        }
+        List<Map<String, Object>> rows = typedQuery.getResultList().stream()
+                .map(tuple -> toRow(tuple, fields))
+                .collect(Collectors.toList());
+        return PageableExecutionUtils.getPage(rows, pageable, () -> count(specification));
+    }
+
+    private long count(Specification<Contact> specification) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Contact> root = query.from(Contact.class);
+        query.select(cb.count(root)).where(specification.toPredicate(root, query, cb));
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    private static Map<String, Object> toRow(Tuple tuple, Collection<String> fields) {
+        Map<String, Object> row = new LinkedHashMap<>(fields.size() * 2);
+        for (String field : fields) {
+            row.put(field, tuple.get(field));
+        }
+        return row;
+    }
+
+    private static CompoundSelection<ContactDTO> dtoSelection(CriteriaBuilder cb, Root<Contact> root) {
+        return cb.construct(ContactDTO.class,
+                root.get("id"), root.get("firstName"), root.get("lastName"), root.get("phoneNo"),
+                root.get("email"), root.get("isActive"), root.get("category"), root.get("creationDate"),
+                root.get("version"));
+    }
+}
@@ -0,0 +1,131 @@
+package org.ostad._3_assignemnt.repository;
+
+import jakarta.persistence.criteria.Predicate;
+import org.ostad._3_assignemnt.dto.ContactCursor;
+import org.ostad._3_assignemnt.dto.ContactSearchCriteria;
+import org.ostad._3_assignemnt.entity.Contact;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Builds search queries from only the filters a caller actually set, so every filter combination
+ * gets its own statement and the database can pick the index that fits it.
+ */
+public final class ContactSpecifications {
+
+    // Sort fields backed by an index on the contacts table
+    public static final Set<String> SORTABLE_FIELDS = Set.of(
+            "creationDate", "id", "firstName", "lastName", "email", "category");
+
+    // Fields a sparse fieldset (fields=...) may select: the ContactDTO properties
+    public static final Set<String> SELECTABLE_FIELDS = Set.of(
+            "id", "firstName", "lastName", "phoneNo", "email", "isActive", "category", "creationDate", "version");
+
+    private static final char ESCAPE = '\\';
+
+    private ContactSpecifications() {
+    }
+
+    public static Specification<Contact> matching(ContactSearchCriteria criteria) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            if (hasText(criteria.getFirstName())) {
+                predicates.add(cb.like(cb.lower(root.<String>get("firstName")), contains(criteria.getFirstName()), ESCAPE));
+            }
+            if (hasText(criteria.getLastName())) {
+                predicates.add(cb.like(cb.lower(root.<String>get("lastName")), contains(criteria.getLastName()), ESCAPE));
+            }
+            if (hasText(criteria.getCategory())) {
+                predicates.add(cb.equal(root.get("category"), criteria.getCategory()));
+            }
+            if (criteria.getCategories() != null && !criteria.getCategories().isEmpty()) {
+                predicates.add(root.get("category").in(criteria.getCategories()));
+            }
+            if (criteria.getIsActive() != null) {
+                predicates.add(cb.equal(root.get("isActive"), criteria.getIsActive()));
+            }
+            if (hasText(criteria.getEmailDomain())) {
+                predicates.add(cb.equal(root.get("emailDomain"), Contact.normalizeEmailDomain(criteria.getEmailDomain())));
+            }
+            if (hasText(criteria.getPhonePrefix())) {
+                predicates.add(cb.like(root.<String>get("phoneNo"), escape(criteria.getPhonePrefix()) + "%", ESCAPE));
+            }
+            if (criteria.getCreatedAfter() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.<LocalDateTime>get("creationDate"), criteria.getCreatedAfter()));
+            }
+            if (criteria.getCreatedBefore() != null) {
+                predicates.add(cb.lessThan(root.<LocalDateTime>get("creationDate"), criteria.getCreatedBefore()));
+            }
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+
+    /** Created strictly after {@code date}, as /created-after. */
+    public static Specification<Contact> createdAfter(LocalDateTime date) {
+        return (root, query, cb) -> cb.greaterThan(root.<LocalDateTime>get("creationDate"), date);
+    }
+
+    /** Created in [startDate, endDate], both ends included, as /created-between. */
+    public static Specification<Contact> createdBetween(LocalDateTime startDate, LocalDateTime endDate) {
+        return (root, query, cb) -> cb.between(root.<LocalDateTime>get("creationDate"), startDate, endDate);
+    }
+
+    /** Seek predicate for keyset pagination in (creationDate, id) descending order. */
+    public static Specification<Contact> after(ContactCursor cursor) {
+        return (root, query, cb) -> cb.or(
+                cb.lessThan(root.<LocalDateTime>get("creationDate"), cursor.getCreationDate()),
+                cb.and(cb.equal(root.get("creationDate"), cursor.getCreationDate()),
+                        cb.lessThan(root.<Long>get("id"), cursor.getId())));
+    }
+
+    /** Parses a comma-separated fields= value into the fields to select, in the order given. */
+    public static Set<String> fields(String fields) {
+        Set<String> selected = new LinkedHashSet<>();
+        for (String field : fields.split(",")) {
+            String name = field.trim();
+            if (name.isEmpty()) {
+                continue;
+            }
+            if (!SELECTABLE_FIELDS.contains(name)) {
+                throw new IllegalArgumentException("Unknown field '" + name + "', allowed: " + SELECTABLE_FIELDS);
+            }
+            selected.add(name);
+        }
+        if (selected.isEmpty()) {
+            throw new IllegalArgumentException("fields must name at least one of " + SELECTABLE_FIELDS);
+        }
+        return selected;
+    }
+
+    public static boolean isSortable(String field) {
+        return SORTABLE_FIELDS.contains(field);
+    }
+
+    /** Sorts by a whitelisted field, with id as tie-breaker so pages are stable. */
+    public static Sort sort(String field, Sort.Direction direction) {
+        if (!isSortable(field)) {
+            throw new IllegalArgumentException("Cannot sort by '" + field + "', allowed: " + SORTABLE_FIELDS);
+        }
+        Sort sort = Sort.by(direction, field);
+        return field.equals("id") ? sort : sort.and(Sort.by(direction, "id"));
+    }
+
+    private static boolean hasText(String value) {
+        return value != null && !value.isBlank();
+    }
+
+    private static String contains(String value) {
+        return "%" + escape(value.toLowerCase(Locale.ROOT)) + "%";
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
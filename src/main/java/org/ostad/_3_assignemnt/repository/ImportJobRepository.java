@@ -0,0 +1,27 @@
+package org.ostad._3_assignemnt.repository;
+
+import org.ostad._3_assignemnt.entity.ImportJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ImportJobRepository extends JpaRepository<ImportJob, Long> {
+
+    // Find jobs in any of the given states
+    List<ImportJob> findByStatusIn(Collection<ImportJob.Status> statuses);
+
+    // Move a failed job back to QUEUED; returns 0 when it is no longer FAILED (e.g. a concurrent restart won)
+    @Transactional
+    @Modifying
+    @Query("UPDATE ImportJob j SET j.status = org.ostad._3_assignemnt.entity.ImportJob.Status.QUEUED, " +
+           "j.error = NULL, j.finishedAt = NULL " +
+           "WHERE j.id = :id AND j.status = org.ostad._3_assignemnt.entity.ImportJob.Status.FAILED")
+    int requeueIfFailed(@Param("id") Long id);
+}
@@ -0,0 +1,410 @@
+package org.ostad._3_assignemnt.search;
+
+import org.ostad._3_assignemnt.dto.ContactDTO;
+import org.ostad._3_assignemnt.event.ContactWrite;
+import org.ostad._3_assignemnt.event.ContactWriteBuffer;
+import org.ostad._3_assignemnt.event.ContactsWrittenEvent;
+import org.ostad._3_assignemnt.repository.ContactChangeRepository;
+import org.ostad._3_assignemnt.repository.ContactRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.text.Normalizer;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * In-process trigram index over first and last names.
+ * <p>
+ * Names are normalized (lower-cased, accents stripped) and split into trigrams; each trigram keeps a
+ * sorted array of contact ids. A substring query intersects the postings of its own trigrams, verifies
+ * the candidates against the stored names and ranks them: exact name, name prefix, word prefix, substring.
+ * Queries of one or two characters have no trigrams; they are type-ahead lookups in separate postings
+ * keyed by the first one and two characters of every word, so they match name and word prefixes only.
+ * <p>
+ * Writes carry the contact's version: a write older than the indexed one is dropped, and deletes leave
+ * a tombstone for a while, so listeners running out of commit order cannot restore an old name or a
+ * deleted contact.
+ * <p>
+ * Until the first build completes, callers fall back to the database LIKE queries. Those trim and
+ * ignore case like the index but do not fold accents ("jose" does not find "José"), match short
+ * queries anywhere in a name, and return rows in the page's sort order rather than by rank.
+ */
+@Component
+public class NameSearchIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(NameSearchIndex.class);
+
+    private static final int GRAM = 3;
+    private static final long TOMBSTONE_TTL_NANOS = TimeUnit.MINUTES.toNanos(5);
+
+    @Autowired
+    private ContactRepository contactRepository;
+
+    @Autowired
+    private ContactChangeRepository contactChangeRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ContactWriteBuffer buffer = new ContactWriteBuffer();
+    private Index index = new Index();
+    private long snapshotOffset;
+    private volatile boolean ready;
+
+    // ============= Lifecycle =============
+
+    /**
+     * Builds a new index from the table and swaps it in. The table is read without the lock, so writers
+     * are not held up; writes committed meanwhile are buffered and replayed onto the new index in commit
+     * order before the swap. Called at startup by WarmupRunner.
+     */
+    public void rebuild() {
+        long start = System.nanoTime();
+        lock.writeLock().lock();
+        try {
+            buffer.start();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        Index fresh = new Index();
+        long loadedOffset;
+        try {
+            // On the primary: the snapshot must include every write committed before the offset read
+            loadedOffset = new TransactionTemplate(transactionManager).execute(status -> {
+                long offset = contactChangeRepository.findLastOffset();
+                try (Stream<Object[]> rows = contactRepository.streamNames()) {
+                    rows.forEach(row -> fresh.put((Long) row[0], (String) row[1], (String) row[2], (Long) row[3]));
+                }
+                return offset;
+            });
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                buffer.cancel();
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+
+        lock.writeLock().lock();
+        try {
+            // Some of these may already be in the snapshot; replayed in commit order the last write wins
+            buffer.drainAfter(loadedOffset).forEach(fresh::apply);
+            index = fresh;
+            snapshotOffset = loadedOffset;
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Name search index built for {} contacts in {} ms",
+                fresh.names.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onContactsWritten(ContactsWrittenEvent event) {
+        lock.writeLock().lock();
+        try {
+            buffer.offer(event);
+            // A listener that runs late may bring a write the current snapshot already contains
+            if (event.getChangeOffset() == 0 || event.getChangeOffset() > snapshotOffset) {
+                index.apply(event);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // ============= Queries =============
+
+    public boolean canServe(String query) {
+        return ready && query != null && !normalize(query).isEmpty();
+    }
+
+    /**
+     * Returns the ids of all contacts whose first or last name contains the query, best match first.
+     * Callers must check {@link #canServe(String)} first.
+     */
+    public long[] search(String query) {
+        String needle = normalize(query);
+        lock.readLock().lock();
+        try {
+            // Rank in the top byte, id below it, so one primitive sort orders the result
+            long[] ranked = needle.length() < GRAM ? lookupPrefix(needle) : lookup(needle);
+            Arrays.sort(ranked);
+            for (int i = 0; i < ranked.length; i++) {
+                ranked[i] &= (1L << 56) - 1;
+            }
+            return ranked;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private long[] lookup(String needle) {
+        long[] grams = grams(needle);
+        Postings[] lists = new Postings[grams.length];
+        for (int i = 0; i < grams.length; i++) {
+            lists[i] = index.postings.get(grams[i]);
+            if (lists[i] == null) {
+                return new long[0];
+            }
+        }
+        Arrays.sort(lists, (a, b) -> Integer.compare(a.size, b.size));
+
+        long[] ranked = new long[lists[0].size];
+        int found = 0;
+        for (int i = 0; i < lists[0].size; i++) {
+            long id = lists[0].ids[i];
+            if (!containsAll(lists, id)) {
+                continue;
+            }
+            int rank = rank(index.names.get(id).names, needle);
+            if (rank >= 0) {
+                ranked[found++] = ((long) rank << 56) | id;
+            }
+        }
+        return Arrays.copyOf(ranked, found);
+    }
+
+    // One or two characters: every posted contact has a word starting with the needle
+    private long[] lookupPrefix(String needle) {
+        Postings list = index.prefixes.get(prefixKey(needle, 0, needle.length()));
+        if (list == null) {
+            return new long[0];
+        }
+        long[] ranked = new long[list.size];
+        for (int i = 0; i < list.size; i++) {
+            long id = list.ids[i];
+            ranked[i] = ((long) rank(index.names.get(id).names, needle) << 56) | id;
+        }
+        return ranked;
+    }
+
+    // ============= Helper Methods =============
+
+    /** Postings per trigram and per word prefix plus the normalized names they were built from. */
+    private static final class Index {
+        private final Map<Long, Postings> postings = new HashMap<>();
+        private final Map<Long, Postings> prefixes = new HashMap<>();
+        private final Map<Long, Entry> names = new HashMap<>();
+        // Deleted id -> {version, deletedAt nanos}, oldest first
+        private final LinkedHashMap<Long, long[]> tombstones = new LinkedHashMap<>();
+
+        void apply(ContactsWrittenEvent event) {
+            for (ContactWrite write : event.getWrites()) {
+                if (write.isDelete()) {
+                    remove(write.getId(), write.getPrevious().getVersion());
+                } else {
+                    ContactDTO current = write.getCurrent();
+                    put(write.getId(), current.getFirstName(), current.getLastName(), current.getVersion());
+                }
+            }
+        }
+
+        void put(Long id, String firstName, String lastName, Long version) {
+            if (isStale(id, version)) {
+                return;
+            }
+            unindex(id);
+            String[] normalized = {normalize(firstName), normalize(lastName)};
+            names.put(id, new Entry(normalized, version != null ? version : -1));
+            for (String name : normalized) {
+                for (long gram : grams(name)) {
+                    postings.computeIfAbsent(gram, g -> new Postings()).add(id);
+                }
+                for (long prefix : prefixes(name)) {
+                    prefixes.computeIfAbsent(prefix, p -> new Postings()).add(id);
+                }
+            }
+        }
+
+        void remove(Long id, Long version) {
+            long deletedAt = System.nanoTime();
+            long[] tombstone = tombstones.get(id);
+            long deletedVersion = version != null ? version : Long.MAX_VALUE;
+            if (tombstone == null || tombstone[0] < deletedVersion) {
+                tombstones.put(id, new long[]{deletedVersion, deletedAt});
+            }
+            pruneTombstones(deletedAt);
+            unindex(id);
+        }
+
+        private boolean isStale(Long id, Long version) {
+            if (version == null) {
+                return false;
+            }
+            long[] tombstone = tombstones.get(id);
+            if (tombstone != null && version <= tombstone[0]) {
+                return true;
+            }
+            Entry indexed = names.get(id);
+            return indexed != null && version <= indexed.version;
+        }
+
+        private void pruneTombstones(long now) {
+            Iterator<long[]> oldest = tombstones.values().iterator();
+            while (oldest.hasNext()) {
+                if (now - oldest.next()[1] < TOMBSTONE_TTL_NANOS) {
+                    return;
+                }
+                oldest.remove();
+            }
+        }
+
+        private void unindex(Long id) {
+            Entry previous = names.remove(id);
+            if (previous == null) {
+                return;
+            }
+            for (String name : previous.names) {
+                unpost(postings, grams(name), id);
+                unpost(prefixes, prefixes(name), id);
+            }
+        }
+
+        private static void unpost(Map<Long, Postings> lists, long[] keys, long id) {
+            for (long key : keys) {
+                Postings list = lists.get(key);
+                if (list != null && list.remove(id) && list.size == 0) {
+                    lists.remove(key);
+                }
+            }
+        }
+    }
+
+    /** Normalized first and last name of one contact and the version they were read at (-1 if unknown). */
+    private static final class Entry {
+        private final String[] names;
+        private final long version;
+
+        Entry(String[] names, long version) {
+            this.names = names;
+            this.version = version;
+        }
+    }
+
+    private static boolean containsAll(Postings[] lists, long id) {
+        for (int i = 1; i < lists.length; i++) {
+            if (Arrays.binarySearch(lists[i].ids, 0, lists[i].size, id) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // 0 = exact name, 1 = name prefix, 2 = word prefix, 3 = substring, -1 = trigram false positive
+    private static int rank(String[] candidate, String needle) {
+        int best = -1;
+        for (String name : candidate) {
+            int rank;
+            if (name.equals(needle)) {
+                rank = 0;
+            } else if (name.startsWith(needle)) {
+                rank = 1;
+            } else if (name.contains(" " + needle)) {
+                rank = 2;
+            } else if (name.contains(needle)) {
+                rank = 3;
+            } else {
+                continue;
+            }
+            best = best < 0 ? rank : Math.min(best, rank);
+        }
+        return best;
+    }
+
+    private static long[] grams(String text) {
+        if (text.length() < GRAM) {
+            return new long[0];
+        }
+        long[] grams = new long[text.length() - GRAM + 1];
+        for (int i = 0; i < grams.length; i++) {
+            grams[i] = ((long) text.charAt(i) << 32) | ((long) text.charAt(i + 1) << 16) | text.charAt(i + 2);
+        }
+        return grams;
+    }
+
+    // Keys of the first one and two characters of every word (start of the name or after a space)
+    private static long[] prefixes(String text) {
+        long[] keys = new long[2 * text.length()];
+        int count = 0;
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) == ' ' || (i > 0 && text.charAt(i - 1) != ' ')) {
+                continue;
+            }
+            keys[count++] = prefixKey(text, i, 1);
+            if (i + 1 < text.length() && text.charAt(i + 1) != ' ') {
+                keys[count++] = prefixKey(text, i, 2);
+            }
+        }
+        return Arrays.copyOf(keys, count);
+    }
+
+    // Length in the high bits keeps one- and two-character keys apart
+    private static long prefixKey(String text, int from, int length) {
+        long key = ((long) length << 32) | text.charAt(from);
+        return length == 1 ? key : (key << 16) | text.charAt(from + 1);
+    }
+
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String stripped = Normalizer.normalize(text.trim(), Normalizer.Form.NFD).replaceAll("\\p{M}", "");
+        return stripped.toLowerCase(Locale.ROOT);
+    }
+
+    /** Sorted, growable array of contact ids; ids mostly arrive in ascending order. */
+    private static final class Postings {
+        private long[] ids = new long[4];
+        private int size;
+
+        void add(long id) {
+            if (size > 0 && ids[size - 1] >= id) {
+                int index = Arrays.binarySearch(ids, 0, size, id);
+                if (index >= 0) {
+                    return;
+                }
+                insertAt(-index - 1, id);
+                return;
+            }
+            insertAt(size, id);
+        }
+
+        boolean remove(long id) {
+            int index = Arrays.binarySearch(ids, 0, size, id);
+            if (index < 0) {
+                return false;
+            }
+            System.arraycopy(ids, index + 1, ids, index, size - index - 1);
+            size--;
+            return true;
+        }
+
+        private void insertAt(int index, long id) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            System.arraycopy(ids, index, ids, index + 1, size - index);
+            ids[index] = id;
+            size++;
+        }
+    }
+}
@@ -1,191 +1,714 @@
 package org.ostad._3_assignemnt.service;
 
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.ostad._3_assignemnt.cache.ContactCache;
+import org.ostad._3_assignemnt.concurrency.Bulkhead;
+import org.ostad._3_assignemnt.concurrency.ScatterGather;
+import org.ostad._3_assignemnt.concurrency.SingleFlight;
+import org.ostad._3_assignemnt.dto.BulkItemResultDTO;
+import org.ostad._3_assignemnt.dto.BulkResultDTO;
 import org.ostad._3_assignemnt.dto.CategoryCountDTO;
+import org.ostad._3_assignemnt.dto.ContactCursor;
 import org.ostad._3_assignemnt.dto.ContactDTO;
 import org.ostad._3_assignemnt.dto.ContactProjection;
+import org.ostad._3_assignemnt.dto.ContactSearchCriteria;
+import org.ostad._3_assignemnt.dto.DomainCountDTO;
+import org.ostad._3_assignemnt.dto.TimelineBucketDTO;
 import org.ostad._3_assignemnt.entity.Contact;
+import org.ostad._3_assignemnt.event.ContactWrite;
+import org.ostad._3_assignemnt.event.ContactsWrittenEvent;
+import org.ostad._3_assignemnt.replica.ContactColumnStore;
 import org.ostad._3_assignemnt.repository.ContactRepository;
+import org.ostad._3_assignemnt.repository.ContactSpecifications;
+import org.ostad._3_assignemnt.search.NameSearchIndex;
+import org.ostad._3_assignemnt.statistics.CategoryCounters;
+import org.ostad._3_assignemnt.statistics.ContactTimelineRollup;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
-@Transactional
+@Transactional(readOnly = true)
 public class ContactService {
 
+    private static final int ID_CHUNK_SIZE = 1000;
+
+    private static final Comparator<ContactDTO> NEWEST_FIRST = Comparator
+            .comparing(ContactDTO::getCreationDate, Comparator.reverseOrder())
+            .thenComparing(ContactDTO::getId, Comparator.reverseOrder());
+
     @Autowired
     private ContactRepository contactRepository;
 
+    @Autowired
+    private NameSearchIndex nameSearchIndex;
+
+    @Autowired
+    private CategoryCounters categoryCounters;
+
+    @Autowired
+    private ContactTimelineRollup contactTimelineRollup;
+
+    // Optional column-store replica (contacts.replica.enabled); serves the hottest filters when ready
+    @Autowired(required = false)
+    private ContactColumnStore contactColumnStore;
+
+    @Autowired
+    private ContactCache contactCache;
+
+    @Autowired
+    private ScatterGather scatterGather;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${contacts.bulk.flush-size:1000}")
+    private int bulkFlushSize;
+
     // ============= CRUD Operations =============
 
+    @Transactional
     public ContactDTO createContact(ContactDTO contactDTO) {
         Contact contact = convertToEntity(contactDTO);
+        // Ids come from the sequence; with @Version a client-supplied id would make persist fail
+        contact.setId(null);
         Contact savedContact = contactRepository.save(contact);
-        return convertToDTO(savedContact);
+        ContactDTO created = convertToDTO(savedContact);
+        publishWrite(null, created);
+        return created;
     }
 
+    // Point lookups are served from the cache without opening a transaction
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public Optional<ContactDTO> getContactById(Long id) {
-        return contactRepository.findById(id)
-                .map(this::convertToDTO);
+        return contactCache.getById(id, key -> loadFromPrimary(() -> contactRepository.findById(key)
+                .map(this::convertToDTO)));
     }
 
+    @Bulkhead("scan")
     public List<ContactDTO> getAllContacts() {
-        return contactRepository.findAll().stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return contactRepository.findAllDtos();
     }
 
+    @Transactional
     public ContactDTO updateContact(Long id, ContactDTO contactDTO) {
+        return updateContact(id, contactDTO, contactDTO.getVersion());
+    }
+
+    /**
+     * Replaces the contact's fields. When {@code expectedVersion} is given and the stored contact
+     * has moved on, fails with an ObjectOptimisticLockingFailureException instead of overwriting.
+     */
+    @Transactional
+    public ContactDTO updateContact(Long id, ContactDTO contactDTO, Long expectedVersion) {
         Contact contact = contactRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Contact not found with id: " + id));
+        checkVersion(contact, expectedVersion);
+        ContactDTO previous = convertToDTO(contact);
+        applyChanges(contact, contactDTO);
+
+        // Flushed here so the returned version (and ETag) is the one just written
+        Contact updatedContact = contactRepository.saveAndFlush(contact);
+        ContactDTO updated = convertToDTO(updatedContact);
+        publishWrite(previous, updated);
+        return updated;
+    }
 
-        contact.setFirstName(contactDTO.getFirstName());
-        contact.setLastName(contactDTO.getLastName());
-        contact.setPhoneNo(contactDTO.getPhoneNo());
-        contact.setEmail(contactDTO.getEmail());
-        contact.setCategory(contactDTO.getCategory());
-        if (contactDTO.getIsActive() != null) {
-            contact.setIsActive(contactDTO.getIsActive());
+    /**
+     * Applies only the non-null fields of {@code changes}; with @DynamicUpdate the UPDATE statement
+     * carries just the columns that actually changed. Throws IllegalArgumentException if the
+     * result is not a valid contact.
+     */
+    @Transactional
+    public ContactDTO patchContact(Long id, ContactDTO changes, Long expectedVersion) {
+        Contact contact = contactRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Contact not found with id: " + id));
+        checkVersion(contact, expectedVersion != null ? expectedVersion : changes.getVersion());
+        ContactDTO previous = convertToDTO(contact);
+
+        ContactDTO merged = convertToDTO(contact);
+        if (changes.getFirstName() != null) {
+            merged.setFirstName(changes.getFirstName());
+        }
+        if (changes.getLastName() != null) {
+            merged.setLastName(changes.getLastName());
+        }
+        if (changes.getPhoneNo() != null) {
+            merged.setPhoneNo(changes.getPhoneNo());
+        }
+        if (changes.getEmail() != null) {
+            merged.setEmail(changes.getEmail());
+        }
+        if (changes.getCategory() != null) {
+            merged.setCategory(changes.getCategory());
         }
+        if (changes.getIsActive() != null) {
+            merged.setIsActive(changes.getIsActive());
+        }
+        String error = validate(merged);
+        if (error != null) {
+            throw new IllegalArgumentException(error);
+        }
+        if (merged.equals(previous)) {
+            return previous;
+        }
+        applyChanges(contact, merged);
 
-        Contact updatedContact = contactRepository.save(contact);
-        return convertToDTO(updatedContact);
+        Contact updatedContact = contactRepository.saveAndFlush(contact);
+        ContactDTO updated = convertToDTO(updatedContact);
+        publishWrite(previous, updated);
+        return updated;
     }
 
+    @Transactional
     public void deleteContact(Long id) {
-        contactRepository.deleteById(id);
+        contactRepository.findById(id).ifPresent(contact -> {
+            contactRepository.delete(contact);
+            publishWrite(convertToDTO(contact), null);
+        });
+    }
+
+    // ============= Bulk Operations =============
+
+    /**
+     * Inserts contacts in JDBC batches, flushing and clearing the persistence context every
+     * {@code contacts.bulk.flush-size} rows. Invalid items and duplicate emails are reported
+     * per item instead of failing the whole request.
+     */
+    @Bulkhead("bulk")
+    @Transactional
+    public BulkResultDTO bulkCreateContacts(List<ContactDTO> contactDTOs) {
+        List<BulkItemResultDTO> results = new ArrayList<>(contactDTOs.size());
+        List<ContactWrite> writes = new ArrayList<>(contactDTOs.size());
+        Set<String> seenEmails = new HashSet<>();
+
+        for (int from = 0; from < contactDTOs.size(); from += bulkFlushSize) {
+            List<ContactDTO> chunk = contactDTOs.subList(from, Math.min(from + bulkFlushSize, contactDTOs.size()));
+            Set<String> takenEmails = findExistingEmails(chunk);
+
+            for (int i = 0; i < chunk.size(); i++) {
+                int index = from + i;
+                ContactDTO dto = chunk.get(i);
+                String error = validate(dto);
+                if (error == null && (takenEmails.contains(dto.getEmail()) || !seenEmails.add(dto.getEmail()))) {
+                    error = "Email already exists: " + dto.getEmail();
+                }
+                if (error != null) {
+                    results.add(new BulkItemResultDTO(index, null, BulkItemResultDTO.Status.FAILED, error));
+                    continue;
+                }
+                Contact contact = convertToEntity(dto);
+                contact.setId(null);
+                entityManager.persist(contact);
+                ContactDTO created = convertToDTO(contact);
+                writes.add(new ContactWrite(null, created));
+                results.add(new BulkItemResultDTO(index, created.getId(), BulkItemResultDTO.Status.CREATED, null));
+            }
+            entityManager.flush();
+            entityManager.clear();
+        }
+
+        publishWrites(writes);
+        return toBulkResult(results);
+    }
+
+    /**
+     * Updates contacts identified by the id in each item, flushing and clearing every
+     * {@code contacts.bulk.flush-size} rows.
+     */
+    @Bulkhead("bulk")
+    @Transactional
+    public BulkResultDTO bulkUpdateContacts(List<ContactDTO> contactDTOs) {
+        List<BulkItemResultDTO> results = new ArrayList<>(contactDTOs.size());
+        List<ContactWrite> writes = new ArrayList<>(contactDTOs.size());
+        Set<String> seenEmails = new HashSet<>();
+
+        for (int from = 0; from < contactDTOs.size(); from += bulkFlushSize) {
+            List<ContactDTO> chunk = contactDTOs.subList(from, Math.min(from + bulkFlushSize, contactDTOs.size()));
+            Map<Long, Contact> contacts = findAllByIdAsMap(chunk.stream()
+                    .map(ContactDTO::getId)
+                    .filter(Objects::nonNull)
+                    .collect(Collectors.toList()));
+            Set<String> takenEmails = findExistingEmails(chunk);
+            List<ContactDTO> previous = new ArrayList<>(chunk.size());
+            List<Contact> updated = new ArrayList<>(chunk.size());
+
+            for (int i = 0; i < chunk.size(); i++) {
+                int index = from + i;
+                ContactDTO dto = chunk.get(i);
+                Contact contact = dto.getId() != null ? contacts.get(dto.getId()) : null;
+                if (contact == null) {
+                    String error = dto.getId() == null ? "Id is required" : "Contact not found with id: " + dto.getId();
+                    results.add(new BulkItemResultDTO(index, dto.getId(), BulkItemResultDTO.Status.NOT_FOUND, error));
+                    continue;
+                }
+                String error = validate(dto);
+                boolean emailChanged = error == null && !dto.getEmail().equals(contact.getEmail());
+                if (emailChanged && (takenEmails.contains(dto.getEmail()) || !seenEmails.add(dto.getEmail()))) {
+                    error = "Email already exists: " + dto.getEmail();
+                }
+                if (error != null) {
+                    results.add(new BulkItemResultDTO(index, dto.getId(), BulkItemResultDTO.Status.FAILED, error));
+                    continue;
+                }
+                if (dto.getVersion() != null && !dto.getVersion().equals(contact.getVersion())) {
+                    results.add(new BulkItemResultDTO(index, dto.getId(), BulkItemResultDTO.Status.FAILED,
+                            "Version conflict: expected " + dto.getVersion() + " but was " + contact.getVersion()));
+                    continue;
+                }
+                previous.add(convertToDTO(contact));
+                updated.add(contact);
+                applyChanges(contact, dto);
+                results.add(new BulkItemResultDTO(index, contact.getId(), BulkItemResultDTO.Status.UPDATED, null));
+            }
+            entityManager.flush();
+            // After the flush, so the events carry the incremented versions
+            for (int i = 0; i < updated.size(); i++) {
+                writes.add(new ContactWrite(previous.get(i), convertToDTO(updated.get(i))));
+            }
+            entityManager.clear();
+        }
+
+        publishWrites(writes);
+        return toBulkResult(results);
+    }
+
+    /**
+     * Deletes contacts by id with one DELETE ... WHERE id IN (...) statement per chunk.
+     */
+    @Bulkhead("bulk")
+    @Transactional
+    public BulkResultDTO bulkDeleteContacts(List<Long> ids) {
+        List<BulkItemResultDTO> results = new ArrayList<>(ids.size());
+        List<ContactWrite> writes = new ArrayList<>(ids.size());
+
+        for (int from = 0; from < ids.size(); from += bulkFlushSize) {
+            List<Long> chunk = ids.subList(from, Math.min(from + bulkFlushSize, ids.size()));
+            Map<Long, Contact> contacts = findAllByIdAsMap(chunk.stream()
+                    .filter(Objects::nonNull)
+                    .collect(Collectors.toList()));
+
+            for (int i = 0; i < chunk.size(); i++) {
+                Long id = chunk.get(i);
+                Contact contact = id != null ? contacts.get(id) : null;
+                if (contact == null) {
+                    results.add(new BulkItemResultDTO(from + i, id, BulkItemResultDTO.Status.NOT_FOUND,
+                            "Contact not found with id: " + id));
+                    continue;
+                }
+                results.add(new BulkItemResultDTO(from + i, id, BulkItemResultDTO.Status.DELETED, null));
+            }
+            contacts.values().forEach(contact -> writes.add(new ContactWrite(convertToDTO(contact), null)));
+            if (!contacts.isEmpty()) {
+                contactRepository.deleteAllByIdInBatch(contacts.keySet());
+            }
+            entityManager.clear();
+        }
+
+        publishWrites(writes);
+        return toBulkResult(results);
     }
 
     // ============= Derived Query Methods =============
 
     public List<ContactDTO> getContactsByFirstName(String firstName) {
-        return contactRepository.findByFirstName(firstName).stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return contactRepository.findDtosByFirstName(firstName);
     }
 
     public List<ContactDTO> getContactsByLastName(String lastName) {
-        return contactRepository.findByLastName(lastName).stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return contactRepository.findDtosByLastName(lastName);
     }
 
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public Optional<ContactDTO> getContactByEmail(String email) {
-        return contactRepository.findByEmail(email)
-                .map(this::convertToDTO);
+        return contactCache.getByEmail(email, key -> loadFromPrimary(() -> contactRepository.findByEmail(key)
+                .map(this::convertToDTO)));
     }
 
+    @Bulkhead("scan")
     public List<ContactDTO> getContactsByCategory(String category) {
-        return contactRepository.findByCategory(category).stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return contactRepository.findDtosByCategory(category);
     }
 
+    @Bulkhead("scan")
     public List<ContactDTO> getActiveContacts() {
-        return contactRepository.findByIsActive(true).stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return contactRepository.findDtosByIsActive(true);
     }
 
     public List<ContactDTO> getContactsByCategoryAndStatus(String category, Boolean isActive) {
-        return contactRepository.findByCategoryAndIsActive(category, isActive).stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        if (isActive != null && replicaReady()) {
+            return contactColumnStore.findByCategoryAndStatus(category, isActive);
+        }
+        return contactRepository.findDtosByCategoryAndIsActive(category, isActive);
     }
 
+    @Bulkhead("scan")
     public List<ContactDTO> searchContactsByName(String name) {
-        return contactRepository.findByFirstNameContainingIgnoreCaseOrLastNameContainingIgnoreCase(name, name)
+        if (nameSearchIndex.canServe(name)) {
+            return findAllInOrder(nameSearchIndex.search(name));
+        }
+        // Index not built yet; trimmed like the index's normalization, but without accent folding
+        String trimmed = name == null ? null : name.trim();
+        return contactRepository.findByFirstNameContainingIgnoreCaseOrLastNameContainingIgnoreCase(trimmed, trimmed)
                 .stream()
                 .map(this::convertToDTO)
                 .collect(Collectors.toList());
     }
 
+    @Bulkhead("scan")
     public List<ContactDTO> getContactsCreatedAfter(LocalDateTime date) {
-        return contactRepository.findByCreationDateAfter(date).stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return contactRepository.findDtosCreatedAfter(date);
     }
 
+    @Bulkhead("scan")
     public List<ContactDTO> getContactsCreatedBetween(LocalDateTime startDate, LocalDateTime endDate) {
-        return contactRepository.findByCreationDateBetween(startDate, endDate).stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return contactRepository.findDtosCreatedBetween(startDate, endDate);
     }
 
     public long getContactCountByCategory(String category) {
+        if (categoryCounters.isReady()) {
+            return categoryCounters.count(category);
+        }
         return contactRepository.countByCategory(category);
     }
 
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public boolean emailExists(String email) {
-        return contactRepository.existsByEmail(email);
+        return getContactByEmail(email).isPresent();
     }
 
     // ============= Custom JPQL Query Methods =============
 
     public Page<ContactDTO> getActiveContactsByCategory(String category, Pageable pageable) {
-        return contactRepository.findActiveContactsByCategory(category, pageable)
-                .map(this::convertToDTO);
+        return contactRepository.findActiveDtosByCategory(category, pageable);
     }
 
+    @Bulkhead("scan")
     public Page<ContactDTO> searchByName(String name, Pageable pageable) {
-        return contactRepository.searchByName(name, pageable)
+        if (nameSearchIndex.canServe(name)) {
+            long[] ids = nameSearchIndex.search(name);
+            int from = (int) Math.min(pageable.getOffset(), ids.length);
+            int to = Math.min(from + pageable.getPageSize(), ids.length);
+            return new PageImpl<>(findAllInOrder(Arrays.copyOfRange(ids, from, to)), pageable, ids.length);
+        }
+        return contactRepository.searchByName(name == null ? null : name.trim(), pageable)
                 .map(this::convertToDTO);
     }
 
+    /**
+     * Active contacts in any of the categories, newest first. Large requests run one query per
+     * category in parallel and k-way merge the sorted parts; small ones stay a single IN query.
+     * Not transactional itself, so the request thread holds no connection while the parts run.
+     */
+    @Bulkhead("scan")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public List<ContactDTO> getContactsByCategories(List<String> categories) {
-        return contactRepository.findByCategories(categories).stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        List<String> distinct = categories.stream().distinct().collect(Collectors.toList());
+        if (!scatterGather.worthSplitting(distinct.size(), estimateActiveRows(distinct))) {
+            return contactRepository.findDtosByCategories(distinct);
+        }
+        List<List<ContactDTO>> parts = scatterGather.scatter(distinct,
+                contactRepository::findActiveDtosByCategoryNewestFirst);
+        return ScatterGather.mergeSorted(parts, NEWEST_FIRST);
     }
 
+    @SingleFlight
     public long getActiveContactCountByCategory(String category) {
+        if (replicaReady()) {
+            return contactColumnStore.activeCount(category);
+        }
+        if (categoryCounters.isReady()) {
+            return categoryCounters.activeCount(category);
+        }
         return contactRepository.countActiveContactsByCategory(category);
     }
 
+    @Bulkhead("scan")
     public List<ContactDTO> getRecentContacts(int days) {
         LocalDateTime date = LocalDateTime.now().minusDays(days);
-        return contactRepository.findRecentContacts(date).stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        if (replicaReady()) {
+            return contactColumnStore.findCreatedSince(date);
+        }
+        return contactRepository.findRecentDtos(date);
     }
 
     public List<ContactProjection> getAllActiveProjections() {
         return contactRepository.findAllActiveProjections();
     }
 
+    @SingleFlight
     public List<ContactProjection> getContactProjectionsByCategory(String category) {
         return contactRepository.findByCategoryProjection(category);
     }
 
-    public Page<ContactDTO> searchContacts(String firstName, String lastName, String category,
-                                          Boolean isActive, Pageable pageable) {
-        return contactRepository.searchContacts(firstName, lastName, category, isActive, pageable)
-                .map(this::convertToDTO);
+    @Bulkhead("scan")
+    public Page<ContactDTO> searchContacts(ContactSearchCriteria criteria, Pageable pageable) {
+        return contactRepository.searchDtos(ContactSpecifications.matching(criteria), pageable);
+    }
+
+    // Sparse fieldsets: only the requested columns are selected, one map (field -> value) per contact
+    @Bulkhead("scan")
+    public List<Map<String, Object>> getContactFields(ContactSearchCriteria criteria, Set<String> fields, Sort sort) {
+        return getContactFields(ContactSpecifications.matching(criteria), fields, sort);
+    }
+
+    // For filters ContactSearchCriteria cannot express, e.g. the exclusive bound of /created-after
+    @Bulkhead("scan")
+    public List<Map<String, Object>> getContactFields(Specification<Contact> filter, Set<String> fields, Sort sort) {
+        return contactRepository.searchFields(filter, fields, Pageable.unpaged(sort)).getContent();
+    }
+
+    @Bulkhead("scan")
+    public Page<Map<String, Object>> searchContactFields(ContactSearchCriteria criteria, Set<String> fields,
+                                                         Pageable pageable) {
+        return contactRepository.searchFields(ContactSpecifications.matching(criteria), fields, pageable);
     }
 
+    @SingleFlight
     public List<CategoryCountDTO> getContactCountsByCategory() {
+        if (replicaReady()) {
+            return contactColumnStore.countsByCategory();
+        }
+        if (categoryCounters.isReady()) {
+            return categoryCounters.countsByCategory();
+        }
         List<Object[]> results = contactRepository.getContactCountByCategory();
         return results.stream()
                 .map(result -> new CategoryCountDTO((String) result[0], (Long) result[1]))
                 .collect(Collectors.toList());
     }
 
+    @Bulkhead("scan")
     public List<ContactDTO> getContactsByEmailDomain(String domain) {
-        return contactRepository.findByEmailDomain(domain).stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return contactRepository.findDtosByEmailDomain(Contact.normalizeEmailDomain(domain));
+    }
+
+    @Bulkhead("scan")
+    public List<DomainCountDTO> getContactCountsByEmailDomain() {
+        return contactRepository.countByEmailDomain();
+    }
+
+    public List<TimelineBucketDTO> getCreationTimeline(LocalDateTime from, LocalDateTime to,
+                                                       ContactTimelineRollup.Granularity granularity,
+                                                       String category, boolean byCategory) {
+        if (!from.isBefore(to)) {
+            throw new IllegalArgumentException("from must be before to");
+        }
+        return contactTimelineRollup.timeline(from, to, granularity, category, byCategory);
+    }
+
+    // ============= Keyset Pagination Methods =============
+
+    public Slice<ContactDTO> getActiveContactsByCategoryAfter(String category, ContactCursor after, int size) {
+        Pageable limit = PageRequest.of(0, size);
+        return after == null
+                ? contactRepository.findActiveContactsByCategoryFirst(category, limit)
+                : contactRepository.findActiveContactsByCategoryAfter(category,
+                        after.getCreationDate(), after.getId(), limit);
+    }
+
+    @Bulkhead("scan")
+    public Slice<ContactDTO> searchContactsAfter(ContactSearchCriteria criteria, ContactCursor after, int size) {
+        Specification<Contact> specification = ContactSpecifications.matching(criteria);
+        if (after != null) {
+            specification = specification.and(ContactSpecifications.after(after));
+        }
+        return contactRepository.searchDtoSlice(specification, size);
+    }
+
+    // ============= Streaming Export Methods =============
+    // A separate bulkhead group: an export holds its permit for as long as the client keeps reading
+
+    @Bulkhead("export")
+    public void streamAllContacts(Consumer<ContactDTO> consumer) {
+        streamContacts(contactRepository.streamAll(), consumer);
+    }
+
+    @Bulkhead("export")
+    public void streamActiveContacts(Consumer<ContactDTO> consumer) {
+        streamContacts(contactRepository.streamByIsActive(true), consumer);
+    }
+
+    @Bulkhead("export")
+    public void streamContactsByCategory(String category, Consumer<ContactDTO> consumer) {
+        streamContacts(contactRepository.streamByCategory(category), consumer);
+    }
+
+    @Bulkhead("export")
+    public void streamContactsCreatedBetween(LocalDateTime startDate, LocalDateTime endDate,
+                                             Consumer<ContactDTO> consumer) {
+        streamContacts(contactRepository.streamByCreationDateBetween(startDate, endDate), consumer);
+    }
+
+    @Bulkhead("export")
+    public void streamContactsByEmailDomain(String domain, Consumer<ContactDTO> consumer) {
+        streamContacts(contactRepository.streamByEmailDomain(Contact.normalizeEmailDomain(domain)), consumer);
     }
 
     // ============= Helper Methods =============
 
-    private ContactDTO convertToDTO(Contact contact) {
+    // Cache misses read in a read-write transaction, i.e. on the primary with replica routing: the
+    // cache would keep a lagging replica's answer until the next write to the contact
+    private Optional<ContactDTO> loadFromPrimary(Supplier<Optional<ContactDTO>> query) {
+        return new TransactionTemplate(transactionManager).execute(status -> query.get());
+    }
+
+    private void publishWrite(ContactDTO previous, ContactDTO current) {
+        publishWrites(List.of(new ContactWrite(previous, current)));
+    }
+
+    private void publishWrites(List<ContactWrite> writes) {
+        if (!writes.isEmpty()) {
+            eventPublisher.publishEvent(new ContactsWrittenEvent(writes));
+        }
+    }
+
+    private String validate(ContactDTO dto) {
+        Set<ConstraintViolation<ContactDTO>> violations = validator.validate(dto);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(ConstraintViolation::getMessage)
+                .sorted()
+                .collect(Collectors.joining(", "));
+    }
+
+    private Set<String> findExistingEmails(List<ContactDTO> contactDTOs) {
+        List<String> emails = contactDTOs.stream()
+                .map(ContactDTO::getEmail)
+                .filter(Objects::nonNull)
+                .distinct()
+                .collect(Collectors.toList());
+        return emails.isEmpty() ? Set.of() : new HashSet<>(contactRepository.findExistingEmails(emails));
+    }
+
+    private Map<Long, Contact> findAllByIdAsMap(List<Long> ids) {
+        Map<Long, Contact> contacts = new HashMap<>(ids.size() * 2);
+        if (!ids.isEmpty()) {
+            contactRepository.findAllById(ids).forEach(contact -> contacts.put(contact.getId(), contact));
+        }
+        return contacts;
+    }
+
+    private BulkResultDTO toBulkResult(List<BulkItemResultDTO> results) {
+        int succeeded = (int) results.stream()
+                .filter(result -> result.getStatus() == BulkItemResultDTO.Status.CREATED
+                        || result.getStatus() == BulkItemResultDTO.Status.UPDATED
+                        || result.getStatus() == BulkItemResultDTO.Status.DELETED)
+                .count();
+        return new BulkResultDTO(succeeded, results.size() - succeeded, results);
+    }
+
+    // Without in-memory counts there is no cheap estimate, so the request is treated as small
+    private long estimateActiveRows(List<String> categories) {
+        long rows = 0;
+        for (String category : categories) {
+            if (replicaReady()) {
+                rows += contactColumnStore.activeCount(category);
+            } else if (categoryCounters.isReady()) {
+                rows += categoryCounters.activeCount(category);
+            }
+        }
+        return rows;
+    }
+
+    private boolean replicaReady() {
+        return contactColumnStore != null && contactColumnStore.isReady();
+    }
+
+    private void checkVersion(Contact contact, Long expectedVersion) {
+        if (expectedVersion != null && !expectedVersion.equals(contact.getVersion())) {
+            throw new ObjectOptimisticLockingFailureException(Contact.class, contact.getId());
+        }
+    }
+
+    private void applyChanges(Contact contact, ContactDTO dto) {
+        contact.setFirstName(dto.getFirstName());
+        contact.setLastName(dto.getLastName());
+        contact.setPhoneNo(dto.getPhoneNo());
+        contact.setEmail(dto.getEmail());
+        contact.setCategory(dto.getCategory());
+        if (dto.getIsActive() != null) {
+            contact.setIsActive(dto.getIsActive());
+        }
+    }
+
+    /**
+     * Loads contacts by id and returns them in the order of the given ids,
+     * in chunks to keep the IN lists bounded. Ids that no longer exist are skipped.
+     */
+    private List<ContactDTO> findAllInOrder(long[] ids) {
+        Map<Long, ContactDTO> byId = new HashMap<>(ids.length * 2);
+        for (int from = 0; from < ids.length; from += ID_CHUNK_SIZE) {
+            List<Long> chunk = Arrays.stream(ids, from, Math.min(from + ID_CHUNK_SIZE, ids.length))
+                    .boxed()
+                    .collect(Collectors.toList());
+            contactRepository.findAllById(chunk).forEach(contact -> byId.put(contact.getId(), convertToDTO(contact)));
+        }
+        List<ContactDTO> ordered = new ArrayList<>(byId.size());
+        for (long id : ids) {
+            ContactDTO contact = byId.get(id);
+            if (contact != null) {
+                ordered.add(contact);
+            }
+        }
+        return ordered;
+    }
+
+    /**
+     * Hands each row to the consumer as soon as it is read. The stream yields DTOs,
+     * so nothing accumulates in the persistence context.
+     */
+    private void streamContacts(Stream<ContactDTO> contacts, Consumer<ContactDTO> consumer) {
+        try (contacts) {
+            contacts.forEach(consumer);
+        }
+    }
+
+    // Package-private for the mapping benchmarks
+    ContactDTO convertToDTO(Contact contact) {
         ContactDTO dto = new ContactDTO();
         dto.setId(contact.getId());
         dto.setFirstName(contact.getFirstName());
@@ -195,10 +718,11 @@ public class ContactService {
         dto.setIsActive(contact.getIsActive());
         dto.setCategory(contact.getCategory());
         dto.setCreationDate(contact.getCreationDate());
+        dto.setVersion(contact.getVersion());
         return dto;
     }
 
-    private Contact convertToEntity(ContactDTO dto) {
+    Contact convertToEntity(ContactDTO dto) {
         Contact contact = new Contact();
         if (dto.getId() != null) {
             contact.setId(dto.getId());
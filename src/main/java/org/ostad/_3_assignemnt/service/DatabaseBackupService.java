@@ -0,0 +1,66 @@
+package org.ostad._3_assignemnt.service;
+
+import org.ostad._3_assignemnt.dto.BackupDTO;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Online backups of a file-backed H2 database. {@code BACKUP TO} copies a consistent snapshot of
+ * the store into a zip while the application keeps reading and writing.
+ */
+@Service
+public class DatabaseBackupService {
+
+    private static final DateTimeFormatter FILE_TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${spring.datasource.url}")
+    private String datasourceUrl;
+
+    @Value("${contacts.backup.dir:./data/backups}")
+    private String backupDir;
+
+    private final ReentrantLock running = new ReentrantLock();
+
+    public boolean isSupported() {
+        return !datasourceUrl.startsWith("jdbc:h2:mem:");
+    }
+
+    /**
+     * Writes a backup zip and returns where it went. Throws IllegalStateException for in-memory
+     * databases and while another backup is still running.
+     */
+    public BackupDTO backup() throws IOException {
+        if (!isSupported()) {
+            throw new IllegalStateException("Backups need a file-backed database (see the 'mapped' profile)");
+        }
+        if (!running.tryLock()) {
+            throw new IllegalStateException("A backup is already running");
+        }
+        try {
+            Path dir = Paths.get(backupDir).toAbsolutePath();
+            Files.createDirectories(dir);
+            LocalDateTime now = LocalDateTime.now();
+            Path file = dir.resolve("contactdb-" + now.format(FILE_TIMESTAMP) + ".zip");
+
+            long start = System.nanoTime();
+            jdbcTemplate.execute("BACKUP TO '" + file.toString().replace("'", "''") + "'");
+            long durationMs = (System.nanoTime() - start) / 1_000_000;
+            return new BackupDTO(file.toString(), Files.size(file), durationMs, now);
+        } finally {
+            running.unlock();
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package org.ostad._3_assignemnt.service;
+
+import org.ostad._3_assignemnt.repository.ContactRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Populates the email_domain column for rows that predate it (or were inserted with plain SQL)
+ * before the domain endpoints are used. Rows written through JPA get it from Contact's callbacks.
+ */
+@Component
+public class EmailDomainBackfill {
+
+    private static final Logger log = LoggerFactory.getLogger(EmailDomainBackfill.class);
+
+    @Autowired
+    private ContactRepository contactRepository;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @Transactional
+    public void backfill() {
+        int updated = contactRepository.backfillEmailDomains();
+        if (updated > 0) {
+            log.info("Backfilled email_domain for {} contacts", updated);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package org.ostad._3_assignemnt.startup;
+
+import org.ostad._3_assignemnt.replica.ContactColumnStore;
+import org.ostad._3_assignemnt.search.NameSearchIndex;
+import org.ostad._3_assignemnt.statistics.CategoryCounters;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Loads the in-process read structures (counters, name index and, if enabled, the column
+ * store) once the application is ready. With {@code contacts.warmup.async=true} they are built
+ * on a background thread, so opening a large existing database does not hold up startup; until
+ * a structure reports ready, ContactService answers from the database.
+ */
+@Component
+public class WarmupRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(WarmupRunner.class);
+
+    @Autowired
+    private NameSearchIndex nameSearchIndex;
+
+    @Autowired
+    private CategoryCounters categoryCounters;
+
+    // Only present with contacts.replica.enabled=true
+    @Autowired(required = false)
+    private ContactColumnStore contactColumnStore;
+
+    @Value("${contacts.warmup.async:false}")
+    private boolean async;
+
+    // After the schema backfills, which also listen for ApplicationReadyEvent
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public void warmUp() {
+        if (!async) {
+            run();
+            return;
+        }
+        Thread thread = new Thread(this::run, "contacts-warmup");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private void run() {
+        long start = System.nanoTime();
+        try {
+            categoryCounters.rebuild();
+            nameSearchIndex.rebuild();
+            if (contactColumnStore != null) {
+                contactColumnStore.rebuild();
+            }
+            log.info("Warm-up finished in {} ms", (System.nanoTime() - start) / 1_000_000);
+        } catch (RuntimeException e) {
+            log.error("Warm-up failed; queries keep falling back to the database", e);
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package org.ostad._3_assignemnt.statistics;
+
+import org.ostad._3_assignemnt.dto.CategoryCountDTO;
+import org.ostad._3_assignemnt.event.ContactWrite;
+import org.ostad._3_assignemnt.event.ContactWriteBuffer;
+import org.ostad._3_assignemnt.event.ContactsWrittenEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Exact per-category contact counts (total and active), kept in memory.
+ * <p>
+ * Loaded with a GROUP BY at startup, then adjusted after every committed contact write,
+ * so the count endpoints no longer aggregate the whole table on each call.
+ */
+@Component
+public class CategoryCounters {
+
+    private static final Logger log = LoggerFactory.getLogger(CategoryCounters.class);
+
+    // One statement, so the counts and the last change offset come from the same snapshot
+    private static final String SNAPSHOT =
+            "SELECT h.last_offset, c.category, c.is_active, COUNT(c.id) " +
+            "FROM (SELECT COALESCE(MAX(change_offset), 0) AS last_offset FROM contact_changes) h " +
+            "LEFT JOIN contacts c ON 1 = 1 " +
+            "GROUP BY h.last_offset, c.category, c.is_active";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final ContactWriteBuffer buffer = new ContactWriteBuffer();
+    private volatile Map<String, Counts> counts = new ConcurrentHashMap<>();
+    private long snapshotOffset;
+    private volatile boolean ready;
+
+    // ============= Lifecycle =============
+
+    /**
+     * Reloads the counts without blocking writers. Writes that commit meanwhile are buffered and,
+     * if their change offset is past the snapshot's, applied to the new counts before they replace
+     * the old ones; writes the snapshot already counted are not applied twice, also when their
+     * listener only runs after the swap. Called at startup by WarmupRunner.
+     */
+    public void rebuild() {
+        synchronized (this) {
+            buffer.start();
+        }
+        Map<String, Counts> loaded = new ConcurrentHashMap<>();
+        long[] loadedOffset = new long[1];
+        try {
+            jdbcTemplate.query(SNAPSHOT, (RowCallbackHandler) row -> {
+                loadedOffset[0] = row.getLong(1);
+                String category = row.getString(2);
+                if (category != null) {
+                    long count = row.getLong(4);
+                    Counts counter = loaded.computeIfAbsent(category, c -> new Counts());
+                    counter.total.addAndGet(count);
+                    if (row.getBoolean(3)) {
+                        counter.active.addAndGet(count);
+                    }
+                }
+            });
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                buffer.cancel();
+            }
+            throw e;
+        }
+
+        int replayed;
+        synchronized (this) {
+            List<ContactsWrittenEvent> missed = buffer.drainAfter(loadedOffset[0]);
+            missed.forEach(event -> apply(loaded, event));
+            replayed = missed.size();
+            counts = loaded;
+            snapshotOffset = loadedOffset[0];
+            ready = true;
+        }
+        log.info("Category counters loaded for {} categories ({} concurrent writes replayed)", loaded.size(), replayed);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onContactsWritten(ContactsWrittenEvent event) {
+        buffer.offer(event);
+        // A listener that runs late may bring a write the current snapshot already counted
+        if (ready && (event.getChangeOffset() == 0 || event.getChangeOffset() > snapshotOffset)) {
+            apply(counts, event);
+        }
+    }
+
+    // ============= Queries =============
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public long count(String category) {
+        Counts counter = counts.get(category);
+        return counter != null ? counter.total.get() : 0;
+    }
+
+    public long activeCount(String category) {
+        Counts counter = counts.get(category);
+        return counter != null ? counter.active.get() : 0;
+    }
+
+    public List<CategoryCountDTO> countsByCategory() {
+        return counts.entrySet().stream()
+                .filter(entry -> entry.getValue().total.get() > 0)
+                .map(entry -> new CategoryCountDTO(entry.getKey(), entry.getValue().total.get()))
+                .sorted(Comparator.comparing(CategoryCountDTO::getCategory))
+                .collect(Collectors.toList());
+    }
+
+    // ============= Helper Methods =============
+
+    private static void apply(Map<String, Counts> target, ContactsWrittenEvent event) {
+        for (ContactWrite write : event.getWrites()) {
+            if (write.getPrevious() != null) {
+                adjust(target, write.getPrevious().getCategory(), write.getPrevious().getIsActive(), -1);
+            }
+            if (write.getCurrent() != null) {
+                adjust(target, write.getCurrent().getCategory(), write.getCurrent().getIsActive(), 1);
+            }
+        }
+    }
+
+    private static void adjust(Map<String, Counts> target, String category, Boolean isActive, long delta) {
+        Counts counter = target.computeIfAbsent(category, c -> new Counts());
+        counter.total.addAndGet(delta);
+        if (Boolean.TRUE.equals(isActive)) {
+            counter.active.addAndGet(delta);
+        }
+    }
+
+    private static final class Counts {
+        private final AtomicLong total = new AtomicLong();
+        private final AtomicLong active = new AtomicLong();
+    }
+}
@@ -0,0 +1,175 @@
+package org.ostad._3_assignemnt.statistics;
+
+import org.ostad._3_assignemnt.dto.ContactDTO;
+import org.ostad._3_assignemnt.dto.TimelineBucketDTO;
+import org.ostad._3_assignemnt.entity.ContactHourlyCount;
+import org.ostad._3_assignemnt.event.ContactWrite;
+import org.ostad._3_assignemnt.event.ContactsWrittenEvent;
+import org.ostad._3_assignemnt.repository.ContactHourlyCountRepository;
+import org.ostad._3_assignemnt.repository.ContactRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.sql.Timestamp;
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+/**
+ * Keeps contact_hourly_counts (contacts created per hour and category) in step with the contacts
+ * table and answers timeline queries from it, so their cost depends on the number of buckets in
+ * the range rather than the number of contacts.
+ */
+@Component
+public class ContactTimelineRollup {
+
+    private static final Logger log = LoggerFactory.getLogger(ContactTimelineRollup.class);
+
+    private static final String APPLY_DELTA =
+            "MERGE INTO contact_hourly_counts t " +
+            "USING (VALUES (CAST(? AS TIMESTAMP), CAST(? AS VARCHAR(255)), CAST(? AS BIGINT))) " +
+            "AS s(bucket_start, category, delta) " +
+            "ON t.bucket_start = s.bucket_start AND t.category = s.category " +
+            "WHEN MATCHED THEN UPDATE SET contact_count = t.contact_count + s.delta " +
+            "WHEN NOT MATCHED THEN INSERT (bucket_start, category, contact_count) " +
+            "VALUES (s.bucket_start, s.category, s.delta)";
+
+    private static final String REBUILD =
+            "INSERT INTO contact_hourly_counts (bucket_start, category, contact_count) " +
+            "SELECT DATE_TRUNC('HOUR', creation_date), category, COUNT(*) FROM contacts " +
+            "GROUP BY DATE_TRUNC('HOUR', creation_date), category";
+
+    public enum Granularity {
+        HOUR, DAY, WEEK
+    }
+
+    @Autowired
+    private ContactHourlyCountRepository contactHourlyCountRepository;
+
+    @Autowired
+    private ContactRepository contactRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // ============= Maintenance =============
+
+    // Repairs the rollup when it does not add up to the contacts table (first start, rows loaded with SQL)
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @Transactional
+    public void verify() {
+        if (contactHourlyCountRepository.sumCounts() != contactRepository.count()) {
+            rebuild();
+        }
+    }
+
+    @Transactional
+    public void rebuild() {
+        long start = System.nanoTime();
+        jdbcTemplate.update("DELETE FROM contact_hourly_counts");
+        int buckets = jdbcTemplate.update(REBUILD);
+        log.info("Contact timeline rollup rebuilt with {} hourly buckets in {} ms",
+                buckets, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Applies the writes' net change per (hour, category) inside the writing transaction. Ordered after
+     * the change log, whose head lock already serializes writers at this point, so two transactions
+     * never insert the same new bucket concurrently.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public void onContactsWritten(ContactsWrittenEvent event) {
+        // Sorted, so concurrent writers touch bucket rows in the same order
+        Map<LocalDateTime, Map<String, Long>> deltas = new TreeMap<>();
+        for (ContactWrite write : event.getWrites()) {
+            ContactDTO previous = write.getPrevious();
+            ContactDTO current = write.getCurrent();
+            if (previous != null && current != null && Objects.equals(previous.getCategory(), current.getCategory())) {
+                continue;
+            }
+            if (previous != null) {
+                addDelta(deltas, previous, -1);
+            }
+            if (current != null) {
+                addDelta(deltas, current, 1);
+            }
+        }
+
+        List<Object[]> batch = new ArrayList<>();
+        deltas.forEach((hour, byCategory) -> byCategory.forEach((category, delta) -> {
+            if (delta != 0) {
+                batch.add(new Object[]{Timestamp.valueOf(hour), category, delta});
+            }
+        }));
+        if (!batch.isEmpty()) {
+            jdbcTemplate.batchUpdate(APPLY_DELTA, batch);
+        }
+    }
+
+    // ============= Queries =============
+
+    /**
+     * Contacts created in [from, to) per bucket, optionally per category. The range is widened to
+     * whole hours. Buckets without contacts are left out.
+     */
+    @Transactional(readOnly = true)
+    public List<TimelineBucketDTO> timeline(LocalDateTime from, LocalDateTime to, Granularity granularity,
+                                            String category, boolean byCategory) {
+        LocalDateTime start = from.truncatedTo(ChronoUnit.HOURS);
+        LocalDateTime end = to.truncatedTo(ChronoUnit.HOURS).equals(to) ? to : to.truncatedTo(ChronoUnit.HOURS).plusHours(1);
+        List<ContactHourlyCount> hours = category != null
+                ? contactHourlyCountRepository.findInRangeByCategory(start, end, category)
+                : contactHourlyCountRepository.findInRange(start, end);
+
+        Map<LocalDateTime, Map<String, Long>> buckets = new TreeMap<>();
+        for (ContactHourlyCount hour : hours) {
+            String key = byCategory ? hour.getCategory() : "";
+            buckets.computeIfAbsent(bucketOf(hour.getBucketStart(), granularity), b -> new TreeMap<>())
+                    .merge(key, hour.getContactCount(), Long::sum);
+        }
+
+        List<TimelineBucketDTO> timeline = new ArrayList<>();
+        buckets.forEach((bucketStart, counts) -> counts.forEach((key, count) ->
+                timeline.add(new TimelineBucketDTO(bucketStart, byCategory ? key : null, count))));
+        return timeline;
+    }
+
+    // ============= Helper Methods =============
+
+    private static void addDelta(Map<LocalDateTime, Map<String, Long>> deltas, ContactDTO contact, long delta) {
+        if (contact.getCreationDate() == null) {
+            return;
+        }
+        deltas.computeIfAbsent(contact.getCreationDate().truncatedTo(ChronoUnit.HOURS), hour -> new TreeMap<>())
+                .merge(contact.getCategory(), delta, Long::sum);
+    }
+
+    private static LocalDateTime bucketOf(LocalDateTime hour, Granularity granularity) {
+        switch (granularity) {
+            case DAY:
+                return hour.truncatedTo(ChronoUnit.DAYS);
+            case WEEK:
+                return hour.truncatedTo(ChronoUnit.DAYS).with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            default:
+                return hour;
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package org.ostad._3_assignemnt.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.ostad._3_assignemnt.dto.ContactDTO;
+import org.ostad._3_assignemnt.event.ContactWrite;
+import org.ostad._3_assignemnt.event.ContactsWrittenEvent;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ContactCacheTests {
+
+    private final ContactCache cache = new ContactCache(1000, Duration.ofMinutes(10), Duration.ofSeconds(30),
+            new SimpleMeterRegistry());
+
+    @Test
+    void valueLoadedBeforeACommitIsNotCachedAfterItsInvalidation() {
+        ContactDTO stale = contact(1L, "ada@example.com", 0L);
+        ContactDTO updated = contact(1L, "ada@example.com", 1L);
+        AtomicInteger loads = new AtomicInteger();
+
+        // The update commits and invalidates while the reader is still loading the old row
+        cache.getById(1L, id -> {
+            loads.incrementAndGet();
+            cache.onContactsWritten(written(new ContactWrite(stale, updated)));
+            return Optional.of(stale);
+        });
+
+        assertThat(cache.getById(1L, id -> {
+            loads.incrementAndGet();
+            return Optional.of(updated);
+        })).contains(updated);
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void missingEmailLoadedBeforeACreateIsNotCachedAfterIt() {
+        ContactDTO created = contact(2L, "grace@example.com", 0L);
+
+        cache.getByEmail("grace@example.com", email -> {
+            cache.onContactsWritten(written(new ContactWrite(null, created)));
+            return Optional.empty();
+        });
+
+        assertThat(cache.getByEmail("grace@example.com", email -> Optional.of(created))).contains(created);
+    }
+
+    @Test
+    void callersGetCopiesOfCachedContacts() {
+        ContactDTO loaded = contact(3L, "alan@example.com", 0L);
+        cache.getById(3L, id -> Optional.of(loaded));
+        loaded.setCategory("changed");
+
+        ContactDTO first = cache.getById(3L, id -> Optional.empty()).orElseThrow();
+        first.setCategory("changed again");
+
+        assertThat(cache.getById(3L, id -> Optional.empty()).orElseThrow().getCategory()).isEqualTo("work");
+        assertThat(cache.getByEmail("alan@example.com", email -> Optional.empty()).orElseThrow().getCategory())
+                .isEqualTo("work");
+    }
+
+    private static ContactsWrittenEvent written(ContactWrite write) {
+        return new ContactsWrittenEvent(List.of(write));
+    }
+
+    private static ContactDTO contact(Long id, String email, Long version) {
+        return new ContactDTO(id, "First", "Last", "0123456789", email, true, "work", null, version);
+    }
+}
@@ -0,0 +1,56 @@
+package org.ostad._3_assignemnt.changelog;
+
+import org.junit.jupiter.api.Test;
+import org.ostad._3_assignemnt.dto.ContactChangeDTO;
+import org.ostad._3_assignemnt.dto.ContactDTO;
+import org.ostad._3_assignemnt.service.ContactService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class ContactChangeFeedTests {
+
+    @Autowired
+    private ContactService contactService;
+
+    @Autowired
+    private ContactChangeFeed contactChangeFeed;
+
+    @Test
+    void subscriberReceivesCreateUpdateAndDeleteInOrder() throws Exception {
+        BlockingQueue<ContactChangeDTO> received = new LinkedBlockingQueue<>();
+        ContactChangeFeed.Subscription subscription = contactChangeFeed.subscribe(
+                contactChangeFeed.lastOffset(), 2, received::addAll);
+        try {
+            ContactDTO created = contactService.createContact(new ContactDTO(
+                    null, "Ada", "Lovelace", "0123456789", "ada.changes@example.com", true, "work", null, null));
+            created.setCategory("family");
+            contactService.updateContact(created.getId(), created);
+            contactService.deleteContact(created.getId());
+
+            List<ContactChangeDTO> changes = List.of(take(received), take(received), take(received));
+
+            assertThat(changes).extracting(ContactChangeDTO::getType)
+                    .containsExactly("CREATED", "UPDATED", "DELETED");
+            assertThat(changes).extracting(ContactChangeDTO::getContactId)
+                    .containsOnly(created.getId());
+            assertThat(changes.get(1).getContact().getCategory()).isEqualTo("family");
+            assertThat(changes).extracting(ContactChangeDTO::getOffset).isSorted();
+        } finally {
+            subscription.cancel();
+        }
+    }
+
+    private static ContactChangeDTO take(BlockingQueue<ContactChangeDTO> queue) throws InterruptedException {
+        ContactChangeDTO change = queue.poll(5, TimeUnit.SECONDS);
+        assertThat(change).as("change delivered within 5s").isNotNull();
+        return change;
+    }
+}
@@ -0,0 +1,180 @@
+package org.ostad._3_assignemnt.concurrency;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Saturates the heavy "scan" endpoints with more clients than there are request threads and checks
+ * that point lookups are still served: the bulkhead turns the excess scans away (503) instead of
+ * letting them take every request thread. The contact cache is off, so every GET /{id} reaches the
+ * database. Asserts on outcomes and the bulkhead metrics, and compares the lookups' p99 latency with
+ * a baseline measured without load. The latency bound is lenient (5x the baseline, at least 200 ms)
+ * so that a noisy machine does not fail the test, while a lookup queued behind the scans still does.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:bulkheaddb",
+        "server.tomcat.threads.max=8",
+        "contacts.bulkhead.scan.max-concurrent=2",
+        "contacts.bulkhead.scan.max-wait=0ms",
+        "contacts.cache.maximum-size=0",
+        "contacts.cache.expire-after-write=0s",
+        "contacts.cache.negative-expire-after-write=0s"
+})
+class BulkheadLoadTests {
+
+    private static final int ROWS = 20_000;
+    private static final int HEAVY_CLIENTS = 16;
+    private static final int LOOKUPS = 300;
+    private static final int WARMUP_LOOKUPS = 100;
+    private static final long MIN_P99_BOUND_NANOS = TimeUnit.MILLISECONDS.toNanos(200);
+
+    private static final Logger log = LoggerFactory.getLogger(BulkheadLoadTests.class);
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @BeforeEach
+    void seed() {
+        jdbcTemplate.update("DELETE FROM contacts");
+        jdbcTemplate.update("INSERT INTO contacts (id, first_name, last_name, phone_no, email, is_active, " +
+                "category, creation_date, email_domain) SELECT NEXT VALUE FOR contacts_seq, 'First' || X, 'Last' || X, " +
+                "'0170' || X, 'load' || X || '@example.com', MOD(X, 2) = 0, 'cat' || MOD(X, 10), " +
+                "DATEADD('SECOND', -X, CURRENT_TIMESTAMP), 'example.com' FROM SYSTEM_RANGE(1, ?)", ROWS);
+    }
+
+    @Test
+    void pointLookupsAreServedWhileScansAreSaturated() throws Exception {
+        List<Long> ids = jdbcTemplate.queryForList("SELECT id FROM contacts ORDER BY id FETCH FIRST "
+                + (2 * LOOKUPS) + " ROWS ONLY", Long.class);
+        List<Long> baselineIds = ids.subList(0, LOOKUPS);
+        List<Long> loadedIds = ids.subList(LOOKUPS, 2 * LOOKUPS);
+
+        // Baseline without load, after warming up the request path
+        for (int i = 0; i < WARMUP_LOOKUPS; i++) {
+            get("/api/contacts/" + baselineIds.get(i));
+        }
+        List<Integer> baselineStatuses = new ArrayList<>(LOOKUPS);
+        long[] baselineNanos = new long[LOOKUPS];
+        for (int i = 0; i < LOOKUPS; i++) {
+            long start = System.nanoTime();
+            baselineStatuses.add(get("/api/contacts/" + baselineIds.get(i)).statusCode());
+            baselineNanos[i] = System.nanoTime() - start;
+        }
+
+        double rejectedBefore = rejectedScans();
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicInteger rejected = new AtomicInteger();
+        ExecutorService heavy = Executors.newFixedThreadPool(HEAVY_CLIENTS);
+        for (int i = 0; i < HEAVY_CLIENTS; i++) {
+            heavy.submit(() -> {
+                while (running.get()) {
+                    if (get("/api/contacts/search/advanced?lastName=9&size=100").statusCode() == 503) {
+                        rejected.incrementAndGet();
+                    }
+                }
+                return null;
+            });
+        }
+
+        List<Integer> statuses = new ArrayList<>(LOOKUPS);
+        long[] loadedNanos = new long[LOOKUPS];
+        try {
+            Thread.sleep(500);
+            // Distinct ids, each one a database read
+            for (int i = 0; i < LOOKUPS; i++) {
+                long start = System.nanoTime();
+                statuses.add(get("/api/contacts/" + loadedIds.get(i)).statusCode());
+                loadedNanos[i] = System.nanoTime() - start;
+            }
+        } finally {
+            running.set(false);
+            heavy.shutdown();
+            assertThat(heavy.awaitTermination(30, TimeUnit.SECONDS)).isTrue();
+        }
+
+        long baselineP99 = p99(baselineNanos);
+        long loadedP99 = p99(loadedNanos);
+        long bound = Math.max(5 * baselineP99, MIN_P99_BOUND_NANOS);
+        log.info("GET /{id} p99: {} ms without load, {} ms with scans saturated (bound {} ms)",
+                millis(baselineP99), millis(loadedP99), millis(bound));
+
+        assertThat(baselineStatuses).as("GET /{id} without load").containsOnly(200);
+        assertThat(statuses).as("GET /{id} while scans are saturated").hasSize(LOOKUPS).containsOnly(200);
+        assertThat(loadedP99).as("GET /{id} p99 under saturation (ns), baseline p99 " + baselineP99 + " ns")
+                .isLessThanOrEqualTo(bound);
+        assertThat(rejected.get()).as("scans turned away by the bulkhead").isPositive();
+        assertThat(rejectedScans() - rejectedBefore).as("contacts.bulkhead.rejected{group=scan}")
+                .isEqualTo(rejected.get());
+        assertThat(meterRegistry.get("contacts.bulkhead.available").tag("group", "scan").gauge().value())
+                .as("scan permits once the load is over").isEqualTo(2);
+    }
+
+    @Test
+    void exportsDoNotTakeScanPermits() throws Exception {
+        assertThat(get("/api/contacts/stream/active").statusCode()).isEqualTo(200);
+
+        assertThat(meterRegistry.get("contacts.bulkhead.available").tag("group", "export").gauge().value())
+                .as("export permits after the export").isEqualTo(2);
+        Gauge scanPermits = meterRegistry.find("contacts.bulkhead.available").tag("group", "scan").gauge();
+        if (scanPermits != null) {
+            assertThat(scanPermits.value()).as("scan permits after the export").isEqualTo(2);
+        }
+    }
+
+    private static long p99(long[] nanos) {
+        long[] sorted = nanos.clone();
+        Arrays.sort(sorted);
+        return sorted[(int) Math.ceil(sorted.length * 0.99) - 1];
+    }
+
+    private static String millis(long nanos) {
+        return String.format(Locale.ROOT, "%.1f", nanos / 1_000_000.0);
+    }
+
+    private double rejectedScans() {
+        Counter counter = meterRegistry.find("contacts.bulkhead.rejected").tag("group", "scan").counter();
+        return counter != null ? counter.count() : 0;
+    }
+
+    private HttpResponse<Void> get(String path) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .timeout(Duration.ofSeconds(10))
+                .GET()
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.discarding());
+    }
+}
@@ -0,0 +1,97 @@
+package org.ostad._3_assignemnt.concurrency;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.ostad._3_assignemnt.datasource.ReadYourWrites;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SingleFlightAspectTests {
+
+    private final ReadYourWrites readYourWrites = new ReadYourWrites(Duration.ofSeconds(5));
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final SlowReader target = new SlowReader();
+    private final SlowReader reader = proxy(target);
+    private final ExecutorService callers = Executors.newFixedThreadPool(3);
+
+    @AfterEach
+    void tearDown() {
+        target.release.countDown();
+        callers.shutdownNow();
+    }
+
+    @Test
+    void pinnedCallerDoesNotJoinAnUnpinnedQuery() throws Exception {
+        Future<Integer> leader = callers.submit(() -> reader.read("dashboard"));
+        assertThat(target.started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        Future<Integer> unpinned = callers.submit(() -> reader.read("dashboard"));
+        awaitCalls("coalesced", 1);
+        // Just wrote, so it must see its own write: runs its own query instead of waiting for the leader
+        Future<Integer> pinned = callers.submit(() -> {
+            readYourWrites.pin();
+            try {
+                return reader.read("dashboard");
+            } finally {
+                readYourWrites.unpin();
+            }
+        });
+
+        assertThat(pinned.get(5, TimeUnit.SECONDS)).isEqualTo(2);
+        target.release.countDown();
+        assertThat(leader.get(5, TimeUnit.SECONDS)).isEqualTo(1);
+        assertThat(unpinned.get(5, TimeUnit.SECONDS)).isEqualTo(1);
+        assertThat(target.calls).hasValue(2);
+        assertThat(calls("pinned")).isEqualTo(1);
+    }
+
+    private void awaitCalls(String role, double expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (calls(role) < expected && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(calls(role)).as(role + " calls").isEqualTo(expected);
+    }
+
+    private double calls(String role) {
+        return meterRegistry.counter("contacts.singleflight.calls", "method", "SlowReader.read", "role", role).count();
+    }
+
+    private SlowReader proxy(SlowReader target) {
+        SingleFlightAspect aspect = new SingleFlightAspect();
+        ReflectionTestUtils.setField(aspect, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(aspect, "readYourWrites", readYourWrites);
+        AspectJProxyFactory factory = new AspectJProxyFactory(target);
+        factory.setProxyTargetClass(true);
+        factory.addAspect(aspect);
+        return factory.getProxy();
+    }
+
+    /** The first call blocks until released; every call returns its own call number. */
+    public static class SlowReader {
+        private final AtomicInteger calls = new AtomicInteger();
+        private final CountDownLatch started = new CountDownLatch(1);
+        private final CountDownLatch release = new CountDownLatch(1);
+
+        @SingleFlight
+        public Integer read(String category) throws InterruptedException {
+            int call = calls.incrementAndGet();
+            if (call == 1) {
+                started.countDown();
+                release.await();
+            }
+            return call;
+        }
+    }
+}
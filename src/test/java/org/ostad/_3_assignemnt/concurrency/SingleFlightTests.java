@@ -0,0 +1,103 @@
+package org.ostad._3_assignemnt.concurrency;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.ostad._3_assignemnt.dto.ContactProjection;
+import org.ostad._3_assignemnt.service.ContactService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Fires a burst of identical /projections/category/{category} reads at once and counts the queries
+ * Hibernate actually executed: the burst should collapse into a handful of shared queries.
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:singleflightdb")
+class SingleFlightTests {
+
+    private static final int ROWS = 20_000;
+    private static final int CALLERS = 32;
+
+    @Autowired
+    private ContactService contactService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void seed() {
+        jdbcTemplate.update("DELETE FROM contacts");
+        jdbcTemplate.update("INSERT INTO contacts (id, first_name, last_name, phone_no, email, is_active, " +
+                "category, creation_date, email_domain) SELECT NEXT VALUE FOR contacts_seq, 'First' || X, 'Last' || X, " +
+                "'0170' || X, 'flight' || X || '@example.com', TRUE, 'dashboard', CURRENT_TIMESTAMP, 'example.com' " +
+                "FROM SYSTEM_RANGE(1, ?)", ROWS);
+    }
+
+    @Test
+    void concurrentIdenticalReadsShareOneQuery() throws Exception {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        long queriesBefore = statistics.getQueryExecutionCount();
+        double leadersBefore = calls("leader");
+        double coalescedBefore = calls("coalesced");
+
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService callers = Executors.newFixedThreadPool(CALLERS);
+        List<Future<List<ContactProjection>>> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < CALLERS; i++) {
+                results.add(callers.submit(() -> {
+                    start.await();
+                    return contactService.getContactProjectionsByCategory("dashboard");
+                }));
+            }
+            start.countDown();
+            for (Future<List<ContactProjection>> result : results) {
+                assertThat(result.get()).hasSize(ROWS);
+            }
+        } finally {
+            callers.shutdownNow();
+        }
+
+        long queries = statistics.getQueryExecutionCount() - queriesBefore;
+        double leaders = calls("leader") - leadersBefore;
+        double coalesced = calls("coalesced") - coalescedBefore;
+        assertThat(queries).as("queries executed for %d concurrent calls", CALLERS).isLessThan(CALLERS / 2);
+        assertThat(coalesced).as("calls served from another call's query").isPositive();
+        assertThat(leaders + coalesced).isEqualTo(CALLERS);
+    }
+
+    @Test
+    void callsAfterAFlightCompletesRunAgain() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        long queriesBefore = statistics.getQueryExecutionCount();
+
+        contactService.getContactProjectionsByCategory("dashboard");
+        contactService.getContactProjectionsByCategory("dashboard");
+
+        assertThat(statistics.getQueryExecutionCount() - queriesBefore).isEqualTo(2);
+    }
+
+    private double calls(String role) {
+        return meterRegistry.counter("contacts.singleflight.calls",
+                "method", "ContactService.getContactProjectionsByCategory", "role", role).count();
+    }
+}
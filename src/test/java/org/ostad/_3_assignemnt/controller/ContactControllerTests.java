@@ -0,0 +1,242 @@
+package org.ostad._3_assignemnt.controller;
+
+import org.junit.jupiter.api.Test;
+import org.ostad._3_assignemnt.dto.ContactDTO;
+import org.ostad._3_assignemnt.service.ContactService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class ContactControllerTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ContactService contactService;
+
+    @Test
+    void duplicateEmailIsAConflict() throws Exception {
+        contactService.createContact(contact("taken@example.com"));
+        ContactDTO other = contactService.createContact(contact("other@example.com"));
+
+        mockMvc.perform(post("/api/contacts")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(json("taken@example.com", null)))
+                .andExpect(status().isConflict());
+        mockMvc.perform(put("/api/contacts/" + other.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(json("taken@example.com", other.getVersion())))
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    void createIgnoresAClientSuppliedId() throws Exception {
+        ContactDTO existing = contactService.createContact(contact("existing-id@example.com"));
+
+        mockMvc.perform(post("/api/contacts")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(json("new-id@example.com", null).replace("{", "{\"id\":" + existing.getId() + ",")))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.email").value("new-id@example.com"));
+        assertThat(contactService.getContactByEmail("new-id@example.com").orElseThrow().getId())
+                .isNotEqualTo(existing.getId());
+        assertThat(contactService.getContactById(existing.getId()).orElseThrow().getEmail())
+                .isEqualTo("existing-id@example.com");
+    }
+
+    // ============= Conditional Requests =============
+
+    @Test
+    void matchingIfNoneMatchIsNotModified() throws Exception {
+        ContactDTO contact = contactService.createContact(contact("etag-get@example.com"));
+        String eTag = eTag(contact.getVersion());
+
+        mockMvc.perform(get("/api/contacts/" + contact.getId()))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, eTag));
+        mockMvc.perform(get("/api/contacts/" + contact.getId()).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+        mockMvc.perform(get("/api/contacts/" + contact.getId()).header(HttpHeaders.IF_NONE_MATCH, "W/" + eTag))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get("/api/contacts/" + contact.getId())
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag(contact.getVersion() + 1)))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void staleIfMatchIsPreconditionFailedAndStaleBodyVersionIsConflict() throws Exception {
+        ContactDTO contact = contactService.createContact(contact("etag-stale@example.com"));
+        long stale = contact.getVersion() + 5;
+
+        mockMvc.perform(put("/api/contacts/" + contact.getId())
+                        .header(HttpHeaders.IF_MATCH, eTag(stale))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(json("etag-stale@example.com", null)))
+                .andExpect(status().isPreconditionFailed());
+        mockMvc.perform(put("/api/contacts/" + contact.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(json("etag-stale@example.com", stale)))
+                .andExpect(status().isConflict());
+        mockMvc.perform(patch("/api/contacts/" + contact.getId())
+                        .header(HttpHeaders.IF_MATCH, eTag(stale))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"category\":\"home\"}"))
+                .andExpect(status().isPreconditionFailed());
+    }
+
+    @Test
+    void ifMatchAcceptsWeakTagsAndTheWildcard() throws Exception {
+        ContactDTO contact = contactService.createContact(contact("etag-parse@example.com"));
+        long version = contact.getVersion();
+
+        mockMvc.perform(put("/api/contacts/" + contact.getId())
+                        .header(HttpHeaders.IF_MATCH, "W/" + eTag(version))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(json("etag-parse@example.com", null).replace("Ada", "Augusta")))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, eTag(version + 1)));
+        // * matches any version, so the stale version in the body is not checked
+        mockMvc.perform(put("/api/contacts/" + contact.getId())
+                        .header(HttpHeaders.IF_MATCH, "*")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(json("etag-parse@example.com", version)))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, eTag(version + 2)));
+        mockMvc.perform(put("/api/contacts/" + contact.getId())
+                        .header(HttpHeaders.IF_MATCH, "\"abc\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(json("etag-parse@example.com", null)))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void patchWithoutChangesKeepsTheVersion() throws Exception {
+        ContactDTO contact = contactService.createContact(contact("etag-noop@example.com"));
+
+        mockMvc.perform(patch("/api/contacts/" + contact.getId())
+                        .header(HttpHeaders.IF_MATCH, eTag(contact.getVersion()))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"category\":\"work\",\"isActive\":true}"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, eTag(contact.getVersion())))
+                .andExpect(jsonPath("$.version").value(contact.getVersion()));
+    }
+
+    @Test
+    void invalidUpdatesAreBadRequests() throws Exception {
+        ContactDTO contact = contactService.createContact(contact("etag-invalid@example.com"));
+
+        mockMvc.perform(patch("/api/contacts/" + contact.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"email\":\"not-an-email\"}"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(patch("/api/contacts/" + contact.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"firstName\":\"  \"}"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(put("/api/contacts/" + contact.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(json("not-an-email", null)))
+                .andExpect(status().isBadRequest());
+        assertThat(contactService.getContactById(contact.getId()).orElseThrow().getVersion())
+                .isEqualTo(contact.getVersion());
+    }
+
+    // ============= Sparse Fieldsets =============
+
+    @Test
+    void fieldsSelectOnlyTheRequestedProperties() throws Exception {
+        ContactDTO contact = contactService.createContact(contact("fields@sparse-fields.example"));
+
+        mockMvc.perform(get("/api/contacts/email-domain/sparse-fields.example").param("fields", "id, email"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].length()").value(2))
+                .andExpect(jsonPath("$[0].id").value(contact.getId()))
+                .andExpect(jsonPath("$[0].email").value("fields@sparse-fields.example"))
+                .andExpect(jsonPath("$[0].firstName").doesNotExist());
+        LocalDateTime created = contact.getCreationDate();
+        mockMvc.perform(get("/api/contacts/created-between")
+                        .param("startDate", created.minusSeconds(1).toString())
+                        .param("endDate", created.plusSeconds(1).toString())
+                        .param("fields", "email"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[?(@.email == 'fields@sparse-fields.example')]").exists());
+        mockMvc.perform(get("/api/contacts/created-after")
+                        .param("date", created.minusSeconds(1).toString())
+                        .param("fields", "email"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[?(@.email == 'fields@sparse-fields.example')]").exists());
+        mockMvc.perform(get("/api/contacts/created-after")
+                        .param("date", created.plusSeconds(1).toString())
+                        .param("fields", "email"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[?(@.email == 'fields@sparse-fields.example')]").doesNotExist());
+        mockMvc.perform(get("/api/contacts/recent").param("fields", "id,category"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].length()").value(2))
+                .andExpect(jsonPath("$[0].category").exists());
+    }
+
+    @Test
+    void blankFiltersAndUnknownFieldsAreBadRequests() throws Exception {
+        mockMvc.perform(get("/api/contacts/category/{category}", " ").param("fields", "id"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/contacts/category/{category}/status/true", " ").param("fields", "id"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/contacts/categories").param("categories", ",").param("fields", "id"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/contacts/email-domain/{domain}", " ").param("fields", "id"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/contacts/active").param("fields", "id,password"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/contacts/active").param("fields", " , "))
+                .andExpect(status().isBadRequest());
+    }
+
+    // ============= Keyset Pagination =============
+
+    @Test
+    void keysetSizeOutOfRangeIsABadRequest() throws Exception {
+        for (String size : new String[]{"0", "-1", "1001"}) {
+            mockMvc.perform(get("/api/contacts/category/work/active/keyset").param("size", size))
+                    .andExpect(status().isBadRequest());
+            mockMvc.perform(get("/api/contacts/search/advanced/keyset").param("size", size))
+                    .andExpect(status().isBadRequest());
+        }
+        mockMvc.perform(get("/api/contacts/search/advanced/keyset").param("size", "1000"))
+                .andExpect(status().isOk());
+    }
+
+    private static String eTag(long version) {
+        return "\"" + version + "\"";
+    }
+
+    private static ContactDTO contact(String email) {
+        return new ContactDTO(null, "Ada", "Lovelace", "0123456789", email, true, "work", null, null);
+    }
+
+    private static String json(String email, Long version) {
+        return "{\"firstName\":\"Ada\",\"lastName\":\"Lovelace\",\"phoneNo\":\"0123456789\",\"email\":\"" + email
+                + "\",\"isActive\":true,\"category\":\"work\",\"version\":" + version + "}";
+    }
+}
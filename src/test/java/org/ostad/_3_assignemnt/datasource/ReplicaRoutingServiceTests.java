@@ -0,0 +1,116 @@
+package org.ostad._3_assignemnt.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.ostad._3_assignemnt.concurrency.ScatterGather;
+import org.ostad._3_assignemnt.dto.ContactDTO;
+import org.ostad._3_assignemnt.repository.ContactRepository;
+import org.ostad._3_assignemnt.service.ContactService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The whole stack (ContactService, Spring Data JPA, Hibernate) over the routing datasource. The replica
+ * is a second in-memory database with the primary's schema and a row of its own, so where a read went
+ * shows in what it returns.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:routingprimary",
+        "contacts.datasource.replicas=" + ReplicaRoutingServiceTests.REPLICA_URL,
+        "contacts.datasource.replica-check-interval=0s"
+})
+class ReplicaRoutingServiceTests {
+
+    static final String REPLICA_URL = "jdbc:h2:mem:routingreplica;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    private ContactService contactService;
+
+    @Autowired
+    private ContactRepository contactRepository;
+
+    @Autowired
+    private ScatterGather scatterGather;
+
+    @Autowired
+    private ReadYourWrites readYourWrites;
+
+    @Autowired
+    private HikariDataSource primaryDataSource;
+
+    @Autowired
+    private DataSource dataSource;
+
+    private final JdbcTemplate replica = new JdbcTemplate(new DriverManagerDataSource(REPLICA_URL, "sa", ""));
+
+    @BeforeEach
+    void copySchemaToReplica() {
+        replica.execute("DROP ALL OBJECTS");
+        for (String statement : new JdbcTemplate(primaryDataSource).queryForList("SCRIPT NODATA", String.class)) {
+            if (!statement.startsWith("--")) {
+                replica.execute(statement);
+            }
+        }
+        replica.update("INSERT INTO contacts (id, first_name, last_name, phone_no, email, email_domain, is_active, "
+                + "category, creation_date, version) VALUES (-1, 'Replica', 'Only', '0123456789', "
+                + "'replica.only@example.com', 'example.com', TRUE, 'routing', CURRENT_TIMESTAMP, 0)");
+    }
+
+    @Test
+    void applicationDataSourceIsTheLazyRoutingProxy() {
+        assertThat(dataSource).isInstanceOf(LazyConnectionDataSourceProxy.class);
+    }
+
+    @Test
+    void readOnlyServiceQueriesGoToTheReplica() {
+        contactService.createContact(contact("primary.only@example.com"));
+
+        assertThat(contactService.getContactsByCategory("routing"))
+                .extracting(ContactDTO::getEmail)
+                .containsExactly("replica.only@example.com");
+    }
+
+    @Test
+    void cacheMissesLoadFromThePrimary() {
+        ContactDTO created = contactService.createContact(contact("cached@example.com"));
+
+        assertThat(contactService.getContactById(created.getId())).isPresent();
+        assertThat(contactService.getContactByEmail("cached@example.com")).isPresent();
+        assertThat(contactService.getContactById(-1L)).isEmpty();
+        assertThat(contactService.getContactByEmail("replica.only@example.com")).isEmpty();
+    }
+
+    @Test
+    void pinnedCallerAndItsScatterTasksReadFromThePrimary() {
+        contactService.createContact(contact("pinned@example.com"));
+
+        readYourWrites.pin();
+        try {
+            assertThat(contactService.getContactsByCategory("routing"))
+                    .extracting(ContactDTO::getEmail)
+                    .contains("pinned@example.com")
+                    .doesNotContain("replica.only@example.com");
+            List<List<ContactDTO>> parts = scatterGather.scatter(List.of("routing", "routing"),
+                    contactRepository::findDtosByCategory);
+            assertThat(parts).allSatisfy(part -> assertThat(part)
+                    .extracting(ContactDTO::getEmail)
+                    .contains("pinned@example.com")
+                    .doesNotContain("replica.only@example.com"));
+        } finally {
+            readYourWrites.unpin();
+        }
+    }
+
+    private static ContactDTO contact(String email) {
+        return new ContactDTO(null, "Grace", "Hopper", "0123456789", email, true, "routing", null, null);
+    }
+}
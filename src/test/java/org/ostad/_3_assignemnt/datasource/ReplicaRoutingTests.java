@@ -0,0 +1,156 @@
+package org.ostad._3_assignemnt.datasource;
+
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Routing over three in-memory H2 databases standing in for a primary and two replicas; each one
+ * answers "which node am I" from its own table.
+ */
+class ReplicaRoutingTests {
+
+    private final SwitchableDataSource replica1 = new SwitchableDataSource(node("replica1"));
+    private final SwitchableDataSource replica2 = new SwitchableDataSource(node("replica2"));
+    private final ReadYourWrites readYourWrites = new ReadYourWrites(Duration.ofSeconds(30));
+    private ReplicaPool replicaPool;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate readOnly;
+    private TransactionTemplate readWrite;
+
+    @BeforeEach
+    void setUp() {
+        DataSource primary = node("primary");
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        replicas.put("replica1", replica1);
+        replicas.put("replica2", replica2);
+        replicaPool = new ReplicaPool(primary, replicas, readYourWrites, Duration.ZERO);
+
+        LazyConnectionDataSourceProxy routing = new LazyConnectionDataSourceProxy(primary);
+        routing.setReadOnlyDataSource(replicaPool);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(routing);
+        jdbcTemplate = new JdbcTemplate(routing);
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        replicaPool.close();
+    }
+
+    @Test
+    void readOnlyTransactionsRotateOverReplicasAndWritesUsePrimary() {
+        assertThat(List.of(readOnlyNode(), readOnlyNode(), readOnlyNode(), readOnlyNode()))
+                .containsExactly("replica1", "replica2", "replica1", "replica2");
+        assertThat(readWrite.execute(status -> currentNode())).isEqualTo("primary");
+    }
+
+    @Test
+    void failingReplicaIsEjectedUntilHealthCheckPasses() {
+        replica2.down = true;
+        assertThat(List.of(readOnlyNode(), readOnlyNode(), readOnlyNode()))
+                .containsOnly("replica1");
+        assertThat(replicaPool.getHealthyReplicas()).containsExactly("replica1");
+
+        replicaPool.checkReplicas();
+        assertThat(replicaPool.getHealthyReplicas()).containsExactly("replica1");
+
+        replica2.down = false;
+        replicaPool.checkReplicas();
+        assertThat(replicaPool.getHealthyReplicas()).containsExactly("replica1", "replica2");
+        assertThat(List.of(readOnlyNode(), readOnlyNode())).containsExactlyInAnyOrder("replica1", "replica2");
+    }
+
+    @Test
+    void readsFallBackToPrimaryWhenNoReplicaIsHealthy() {
+        replica1.down = true;
+        replica2.down = true;
+        replicaPool.checkReplicas();
+
+        assertThat(replicaPool.getHealthyReplicas()).isEmpty();
+        assertThat(readOnlyNode()).isEqualTo("primary");
+    }
+
+    @Test
+    void clientReadsFromPrimaryInsideItsReadYourWritesWindow() throws Exception {
+        List<String> nodes = new ArrayList<>();
+        HttpServlet reader = new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest request, HttpServletResponse response) {
+                nodes.add(readOnlyNode());
+            }
+        };
+
+        MockHttpServletRequest recentWriter = new MockHttpServletRequest();
+        recentWriter.setCookies(new Cookie(ReadYourWrites.COOKIE, Long.toString(System.currentTimeMillis() + 10_000)));
+        readYourWrites.doFilter(recentWriter, new MockHttpServletResponse(), new MockFilterChain(reader));
+
+        MockHttpServletRequest expiredWindow = new MockHttpServletRequest();
+        expiredWindow.setCookies(new Cookie(ReadYourWrites.COOKIE, Long.toString(System.currentTimeMillis() - 1)));
+        readYourWrites.doFilter(expiredWindow, new MockHttpServletResponse(), new MockFilterChain(reader));
+
+        assertThat(nodes).containsExactly("primary", "replica1");
+        assertThat(readYourWrites.isPinned()).isFalse();
+    }
+
+    private String readOnlyNode() {
+        return readOnly.execute(status -> currentNode());
+    }
+
+    private String currentNode() {
+        return jdbcTemplate.queryForObject("SELECT name FROM node", String.class);
+    }
+
+    private static DataSource node(String name) {
+        DataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:routing_" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS node (name VARCHAR(32))");
+        jdbcTemplate.update("DELETE FROM node");
+        jdbcTemplate.update("INSERT INTO node VALUES (?)", name);
+        return dataSource;
+    }
+
+    /** A replica that can be taken down: while down, every connection attempt fails. */
+    private static final class SwitchableDataSource extends DelegatingDataSource {
+        private volatile boolean down;
+
+        SwitchableDataSource(DataSource target) {
+            super(target);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            if (down) {
+                throw new SQLException("replica down");
+            }
+            return super.getConnection();
+        }
+    }
+}
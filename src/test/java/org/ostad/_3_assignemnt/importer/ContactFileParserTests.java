@@ -0,0 +1,99 @@
+package org.ostad._3_assignemnt.importer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.ostad._3_assignemnt.entity.ImportJob;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ContactFileParserTests {
+
+    private static final String HEADER = "firstName,lastName,phoneNo,email,category,isActive\n";
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void quotedFieldsKeepCommasAndDoubledQuotes() throws IOException {
+        List<ParsedRow> rows = parse(ImportJob.Format.CSV,
+                HEADER + "\"Lovelace, Ada\",\"the \"\"Countess\"\"\",0123,ada@example.com,work,true\n");
+
+        assertThat(rows).hasSize(1);
+        assertThat(rows.get(0).getError()).isNull();
+        assertThat(rows.get(0).getContact().getFirstName()).isEqualTo("Lovelace, Ada");
+        assertThat(rows.get(0).getContact().getLastName()).isEqualTo("the \"Countess\"");
+        assertThat(rows.get(0).getContact().getIsActive()).isTrue();
+    }
+
+    @Test
+    void quotedFieldsMaySpanLines() throws IOException {
+        List<ParsedRow> rows = parse(ImportJob.Format.CSV,
+                HEADER + "Ada,\"Love\nlace\",0123,ada@example.com,work,\n"
+                        + "Grace,Hopper,0456,grace@example.com,work,false\n");
+
+        assertThat(rows).extracting(ParsedRow::getRowNumber).containsExactly(1L, 2L);
+        assertThat(rows.get(0).getContact().getLastName()).isEqualTo("Love\nlace");
+        assertThat(rows.get(1).getContact().getEmail()).isEqualTo("grace@example.com");
+    }
+
+    @Test
+    void badRowsAreReportedWithoutStoppingTheFile() throws IOException {
+        List<ParsedRow> rows = parse(ImportJob.Format.CSV,
+                HEADER + "Ada,Lovelace,0123,ada@example.com,work,maybe\n"
+                        + "\n"
+                        + "Grace,Hopper,0456,grace@example.com,work,true\n"
+                        + "Alan,\"Turing,0789,alan@example.com,work,true\n");
+
+        assertThat(rows).hasSize(3);
+        assertThat(rows.get(0).getError()).startsWith("Row 1:").contains("isActive");
+        assertThat(rows.get(1).getError()).isNull();
+        assertThat(rows.get(1).getRowNumber()).isEqualTo(2);
+        assertThat(rows.get(2).getError()).isEqualTo("Row 3: unterminated quoted field");
+    }
+
+    @Test
+    void missingHeaderColumnFailsTheFile() throws IOException {
+        Path file = write("firstName,lastName,email,category\n");
+
+        assertThatThrownBy(() -> new ContactFileParser(file, ImportJob.Format.CSV, new ObjectMapper()))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("phoneNo");
+    }
+
+    @Test
+    void malformedJsonLinesAreReportedWithoutStoppingTheFile() throws IOException {
+        List<ParsedRow> rows = parse(ImportJob.Format.NDJSON,
+                "{\"firstName\":\"Ada\",\"email\":\"ada@example.com\"}\n"
+                        + "{not json}\n"
+                        + "{\"firstName\":\"Grace\",\"email\":\"grace@example.com\"}\n");
+
+        assertThat(rows).hasSize(3);
+        assertThat(rows.get(0).getContact().getEmail()).isEqualTo("ada@example.com");
+        assertThat(rows.get(1).getError()).startsWith("Row 2:");
+        assertThat(rows.get(2).getContact().getFirstName()).isEqualTo("Grace");
+    }
+
+    private List<ParsedRow> parse(ImportJob.Format format, String content) throws IOException {
+        List<ParsedRow> rows = new ArrayList<>();
+        try (ContactFileParser parser = new ContactFileParser(write(content), format, new ObjectMapper())) {
+            ParsedRow row;
+            while ((row = parser.next()) != null) {
+                rows.add(row);
+            }
+        }
+        return rows;
+    }
+
+    private Path write(String content) throws IOException {
+        return Files.writeString(Files.createTempFile(dir, "contacts", ".txt"), content, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,137 @@
+package org.ostad._3_assignemnt.importer;
+
+import org.junit.jupiter.api.Test;
+import org.ostad._3_assignemnt.dto.ContactDTO;
+import org.ostad._3_assignemnt.dto.ImportJobDTO;
+import org.ostad._3_assignemnt.entity.ImportJob;
+import org.ostad._3_assignemnt.repository.ContactRepository;
+import org.ostad._3_assignemnt.repository.ImportJobRepository;
+import org.ostad._3_assignemnt.service.ContactService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs whole files through the import pipeline with two rows per batch, so duplicates and
+ * restarts cross batch boundaries.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:importdb",
+        "contacts.import.batch-size=2"
+})
+class ContactImportServiceTests {
+
+    private static final String HEADER = "firstName,lastName,phoneNo,email,category\n";
+
+    @Autowired
+    private ContactImportService contactImportService;
+
+    @Autowired
+    private ContactService contactService;
+
+    @Autowired
+    private ContactRepository contactRepository;
+
+    @Autowired
+    private ImportJobRepository importJobRepository;
+
+    @Test
+    void countsImportedRejectedAndDuplicateRows() throws Exception {
+        contactService.createContact(new ContactDTO(null, "Old", "Row", "0000", "counts-existing@example.com",
+                true, "work", null, null));
+        String csv = HEADER
+                + "Ada,Lovelace,0123,counts-ada@example.com,work\n"
+                + "Grace,Hopper,0456,counts-grace@example.com,work\n"
+                // same email as a row in the previous batch
+                + "Ada,Again,0123,counts-ada@example.com,work\n"
+                + "Bad,Email,0789,not-an-email,work\n"
+                + "Old,Row,0000,counts-existing@example.com,work\n"
+                + "Alan,\"Turing\nJr\",0789,counts-alan@example.com,work\n";
+
+        ImportJobDTO job = contactImportService.startImport(
+                new MockMultipartFile("file", "counts.csv", "text/csv", csv.getBytes(StandardCharsets.UTF_8)));
+        job = awaitFinished(job.getId());
+
+        assertThat(job.getStatus()).isEqualTo("COMPLETED");
+        assertThat(job.getRowsProcessed()).isEqualTo(6);
+        assertThat(job.getRowsImported()).isEqualTo(3);
+        assertThat(job.getRowsRejected()).isEqualTo(1);
+        assertThat(job.getRowsDuplicate()).isEqualTo(2);
+        assertThat(contactService.getContactByEmail("counts-alan@example.com"))
+                .hasValueSatisfying(contact -> assertThat(contact.getLastName()).isEqualTo("Turing\nJr"));
+    }
+
+    @Test
+    void restartResumesAfterTheLastCommittedRowAndRunsOnce() throws Exception {
+        Path file = Files.createTempFile("restart-", ".csv");
+        Files.writeString(file, HEADER
+                + "Ada,Lovelace,0123,restart-1@example.com,work\n"
+                + "Grace,Hopper,0456,restart-2@example.com,work\n"
+                + "Alan,Turing,0789,restart-3@example.com,work\n"
+                + "Edsger,Dijkstra,0999,restart-4@example.com,work\n");
+        ImportJob failed = new ImportJob();
+        failed.setFileName("restart.csv");
+        failed.setStoredPath(file.toString());
+        failed.setFormat(ImportJob.Format.CSV);
+        failed.setStatus(ImportJob.Status.FAILED);
+        failed.setLastCommittedRow(2);
+        failed.setError("Interrupted by shutdown");
+        Long id = importJobRepository.save(failed).getId();
+
+        // Two restarts race; the status compare-and-set lets exactly one through
+        CountDownLatch start = new CountDownLatch(1);
+        Callable<Boolean> restart = () -> {
+            start.await();
+            try {
+                contactImportService.restartImport(id);
+                return true;
+            } catch (IllegalStateException e) {
+                return false;
+            }
+        };
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        List<Future<Boolean>> results = new ArrayList<>();
+        try {
+            results.add(pool.submit(restart));
+            results.add(pool.submit(restart));
+            start.countDown();
+            assertThat(List.of(results.get(0).get(), results.get(1).get())).containsExactlyInAnyOrder(true, false);
+        } finally {
+            pool.shutdown();
+        }
+
+        ImportJobDTO job = awaitFinished(id);
+        assertThat(job.getStatus()).isEqualTo("COMPLETED");
+        assertThat(job.getRowsProcessed()).isEqualTo(4);
+        assertThat(job.getRowsImported()).isEqualTo(2);
+        assertThat(job.getError()).isNull();
+        assertThat(contactRepository.findExistingEmails(List.of(
+                "restart-1@example.com", "restart-2@example.com", "restart-3@example.com", "restart-4@example.com")))
+                .containsExactlyInAnyOrder("restart-3@example.com", "restart-4@example.com");
+    }
+
+    private ImportJobDTO awaitFinished(Long id) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (true) {
+            ImportJobDTO job = contactImportService.getJob(id).orElseThrow();
+            if (job.getStatus().equals("COMPLETED") || job.getStatus().equals("FAILED")
+                    || System.currentTimeMillis() > deadline) {
+                return job;
+            }
+            Thread.sleep(50);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package org.ostad._3_assignemnt.replica;
+
+import org.junit.jupiter.api.Test;
+import org.ostad._3_assignemnt.dto.CategoryCountDTO;
+import org.ostad._3_assignemnt.dto.ContactDTO;
+import org.ostad._3_assignemnt.repository.ContactRepository;
+import org.ostad._3_assignemnt.service.ContactService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The column store must answer its queries exactly like the database, both when kept up to date by
+ * write events and after a rebuild from the table.
+ */
+@SpringBootTest(properties = {
+        "contacts.replica.enabled=true",
+        "spring.datasource.url=jdbc:h2:mem:columnstoredb"
+})
+class ContactColumnStoreTests {
+
+    @Autowired
+    private ContactService contactService;
+
+    @Autowired
+    private ContactRepository contactRepository;
+
+    @Autowired
+    private ContactColumnStore contactColumnStore;
+
+    @Test
+    void queriesMatchTheDatabaseAfterWritesAndAfterRebuild() {
+        LocalDateTime since = LocalDateTime.now().minusMinutes(1);
+        for (int i = 0; i < 40; i++) {
+            ContactDTO created = contactService.createContact(new ContactDTO(null, "First" + i, "Last" + i,
+                    "0123456789", "columns" + i + "@example.com", i % 3 != 0, i % 2 == 0 ? "work" : "family",
+                    null, null));
+            if (i % 5 == 0) {
+                created.setCategory("friends");
+                contactService.updateContact(created.getId(), created);
+            } else if (i % 7 == 0) {
+                contactService.deleteContact(created.getId());
+            }
+        }
+        assertThat(contactColumnStore.isReady()).isTrue();
+        assertMatchesDatabase(since);
+
+        contactColumnStore.rebuild();
+        assertMatchesDatabase(since);
+    }
+
+    private void assertMatchesDatabase(LocalDateTime since) {
+        for (String category : List.of("work", "family", "friends", "unknown")) {
+            for (boolean active : List.of(true, false)) {
+                assertThat(contactColumnStore.findByCategoryAndStatus(category, active))
+                        .containsExactlyInAnyOrderElementsOf(
+                                contactRepository.findDtosByCategoryAndIsActive(category, active));
+            }
+            assertThat(contactColumnStore.activeCount(category))
+                    .isEqualTo(contactRepository.countActiveContactsByCategory(category));
+        }
+        assertThat(contactColumnStore.findCreatedSince(since))
+                .containsExactlyElementsOf(contactRepository.findRecentDtos(since));
+        assertThat(contactColumnStore.countsByCategory())
+                .containsExactlyInAnyOrderElementsOf(contactRepository.getContactCountByCategory().stream()
+                        .map(row -> new CategoryCountDTO((String) row[0], (Long) row[1]))
+                        .collect(Collectors.toList()));
+    }
+}
@@ -0,0 +1,113 @@
+package org.ostad._3_assignemnt.replica;
+
+import org.junit.jupiter.api.Test;
+import org.ostad._3_assignemnt.dto.CategoryCountDTO;
+import org.ostad._3_assignemnt.dto.ContactDTO;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ContactColumnsTests {
+
+    private static final LocalDateTime CREATED = LocalDateTime.of(2024, 1, 1, 12, 0, 0, 123_456_000);
+
+    private final ContactColumns columns = new ContactColumns();
+
+    @Test
+    void putUpdateAndDeleteKeepRowsAndCountsInSync() {
+        columns.put(contact(1, "work", true, 0));
+        columns.put(contact(2, "work", false, 0));
+
+        assertThat(columns.findByCategoryAndStatus("work", true)).containsExactly(contact(1, "work", true, 0));
+        assertThat(columns.activeCount("work")).isEqualTo(1);
+
+        columns.put(contact(1, "family", true, 1));
+        assertThat(columns.findByCategoryAndStatus("work", true)).isEmpty();
+        assertThat(columns.findByCategoryAndStatus("family", true)).containsExactly(contact(1, "family", true, 1));
+        assertThat(columns.countsByCategory()).containsExactly(
+                new CategoryCountDTO("family", 1L), new CategoryCountDTO("work", 1L));
+
+        columns.remove(2, 0L);
+        assertThat(columns.size()).isEqualTo(1);
+        assertThat(columns.countsByCategory()).containsExactly(new CategoryCountDTO("family", 1L));
+    }
+
+    @Test
+    void olderVersionArrivingLateIsIgnored() {
+        columns.put(contact(1, "family", true, 2));
+        columns.put(contact(1, "work", false, 1));
+        columns.put(contact(1, "work", false, 2));
+
+        assertThat(columns.findByCategoryAndStatus("family", true)).containsExactly(contact(1, "family", true, 2));
+        assertThat(columns.countsByCategory()).containsExactly(new CategoryCountDTO("family", 1L));
+    }
+
+    @Test
+    void writeArrivingAfterTheDeleteDoesNotResurrectTheContact() {
+        columns.put(contact(1, "work", true, 0));
+        columns.remove(1, 1L);
+        columns.put(contact(1, "family", true, 1));
+
+        // The create's listener can also run after the delete's
+        columns.remove(2, 0L);
+        columns.put(contact(2, "work", true, 0));
+
+        assertThat(columns.size()).isZero();
+        assertThat(columns.countsByCategory()).isEmpty();
+        assertThat(columns.findCreatedSince(CREATED.minusDays(1))).isEmpty();
+    }
+
+    @Test
+    void growingAndCompactingKeepEveryLiveRow() {
+        // Long strings overflow the initial 1 MB arena; 3000 rows outgrow the initial 1024 slots
+        List<ContactDTO> expected = new ArrayList<>();
+        for (long id = 1; id <= 3000; id++) {
+            columns.put(contact(id, id % 2 == 0 ? "work" : "family", true, 0));
+        }
+        // Deleting most rows and updating the rest leaves garbage; refilling the slots compacts
+        for (long id = 1; id <= 3000; id++) {
+            if (id % 10 != 0) {
+                columns.remove(id, 0L);
+            } else {
+                columns.put(contact(id, "work", id % 20 == 0, 1));
+            }
+        }
+        for (long id = 3001; id <= 6000; id++) {
+            columns.put(contact(id, "friends", true, 0));
+        }
+        for (long id = 10; id <= 3000; id += 20) {
+            expected.add(contact(id, "work", false, 1));
+        }
+
+        assertThat(columns.size()).isEqualTo(300 + 3000);
+        assertThat(columns.findByCategoryAndStatus("work", false)).containsExactlyInAnyOrderElementsOf(expected);
+        assertThat(columns.activeCount("work")).isEqualTo(150);
+        assertThat(columns.activeCount("friends")).isEqualTo(3000);
+        assertThat(columns.findByCategoryAndStatus("family", true)).isEmpty();
+    }
+
+    @Test
+    void findCreatedSinceReturnsNewestFirst() {
+        columns.put(contact(1, "work", true, 0, CREATED.minusDays(2)));
+        columns.put(contact(2, "work", true, 0, CREATED));
+        columns.put(contact(3, "work", true, 0, CREATED));
+        columns.put(contact(4, "work", true, 0, CREATED.plusSeconds(1)));
+
+        assertThat(columns.findCreatedSince(CREATED.minusDays(1)))
+                .extracting(ContactDTO::getId)
+                .containsExactly(4L, 3L, 2L);
+    }
+
+    private static ContactDTO contact(long id, String category, boolean active, long version) {
+        return contact(id, category, active, version, CREATED);
+    }
+
+    private static ContactDTO contact(long id, String category, boolean active, long version, LocalDateTime created) {
+        String padding = "x".repeat(80);
+        return new ContactDTO(id, "First" + id + padding, "Last" + id + padding, "0123456789",
+                "contact" + id + "." + padding + "@example.com", active, category, created, version);
+    }
+}
@@ -0,0 +1,57 @@
+package org.ostad._3_assignemnt.replica;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LongIntHashMapTests {
+
+    @Test
+    void putGetOverwriteAndRemove() {
+        LongIntHashMap map = new LongIntHashMap(4);
+        map.put(7, 1);
+        map.put(-7, 2);
+        map.put(7, 3);
+
+        assertThat(map.get(7)).isEqualTo(3);
+        assertThat(map.get(-7)).isEqualTo(2);
+        assertThat(map.get(8)).isEqualTo(-1);
+        assertThat(map.size()).isEqualTo(2);
+
+        map.remove(7);
+        map.remove(8);
+        assertThat(map.get(7)).isEqualTo(-1);
+        assertThat(map.size()).isEqualTo(1);
+
+        map.put(7, 4);
+        assertThat(map.get(7)).isEqualTo(4);
+        assertThat(map.size()).isEqualTo(2);
+    }
+
+    @Test
+    void matchesHashMapUnderRandomChurn() {
+        // Small key space: many collisions, removals leave tombstones that later puts reuse or resize away
+        LongIntHashMap map = new LongIntHashMap(16);
+        Map<Long, Integer> reference = new HashMap<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 200_000; i++) {
+            long key = random.nextInt(5_000) * 1_024L;
+            if (random.nextInt(3) == 0) {
+                map.remove(key);
+                reference.remove(key);
+            } else {
+                map.put(key, i);
+                reference.put(key, i);
+            }
+        }
+
+        assertThat(map.size()).isEqualTo(reference.size());
+        for (long key = 0; key < 5_000 * 1_024L; key += 1_024) {
+            assertThat(map.get(key)).isEqualTo(reference.getOrDefault(key, -1));
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package org.ostad._3_assignemnt.repository;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.params.provider.Arguments.arguments;
+
+/**
+ * Guards the query plans of ContactRepository: each filter must be served by an index,
+ * so a dropped or mismatched index fails the build instead of turning into a full table scan.
+ * <p>
+ * Each repository method is called for real; a StatementInspector captures the SQL Hibernate
+ * generated and that exact statement is EXPLAINed with the same arguments, in bind order.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "org.ostad._3_assignemnt.repository.ContactRepositoryIndexTests$CapturingStatementInspector")
+class ContactRepositoryIndexTests {
+
+    private static final LocalDateTime START = LocalDateTime.of(2024, 1, 1, 0, 0);
+    private static final LocalDateTime END = LocalDateTime.of(2024, 12, 31, 0, 0);
+
+    @Autowired
+    private ContactRepository contactRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Records the statements Hibernate prepares on the capturing thread only, so SQL issued
+     * concurrently by warmup, event listeners or the change log is never EXPLAINed by mistake.
+     */
+    public static class CapturingStatementInspector implements StatementInspector {
+
+        private static final ThreadLocal<List<String>> statements = new ThreadLocal<>();
+
+        @Override
+        public String inspect(String sql) {
+            List<String> captured = statements.get();
+            if (captured != null) {
+                captured.add(sql);
+            }
+            return sql;
+        }
+
+        static List<String> capture(Runnable action) {
+            List<String> captured = new ArrayList<>();
+            statements.set(captured);
+            try {
+                action.run();
+            } finally {
+                statements.remove();
+            }
+            return captured;
+        }
+    }
+
+    // Arguments are listed in bind order, including repeated named parameters and the row limit
+    static Stream<Arguments> indexedQueries() {
+        return Stream.of(
+                query("findByEmail", r -> r.findByEmail("a@example.com"), "a@example.com"),
+                query("existsByEmail", r -> r.existsByEmail("a@example.com"), "a@example.com", 1),
+                query("findByPhoneNo", r -> r.findByPhoneNo("0123456789"), "0123456789"),
+                query("findByFirstName", r -> r.findByFirstName("Ada"), "Ada"),
+                query("findByLastName", r -> r.findByLastName("Lovelace"), "Lovelace"),
+                query("findByCategory", r -> r.findByCategory("work"), "work"),
+                query("findByIsActive", r -> r.findByIsActive(true), true),
+                query("findByCategoryAndIsActive", r -> r.findByCategoryAndIsActive("work", true), "work", true),
+                query("findByCategoryOrderByCreationDateDesc",
+                        r -> r.findByCategoryOrderByCreationDateDesc("work"), "work"),
+                query("countByCategory", r -> r.countByCategory("work"), "work"),
+                query("findExistingEmails", r -> r.findExistingEmails(List.of("a@example.com", "b@example.com")),
+                        "a@example.com", "b@example.com"),
+                query("findActiveContactsByCategory",
+                        r -> r.findActiveContactsByCategory("work", PageRequest.of(0, 20)), "work", 20),
+                query("countActiveContactsByCategory", r -> r.countActiveContactsByCategory("work"), "work"),
+                query("findByCategories", r -> r.findByCategories(List.of("work", "family")), "work", "family"),
+                query("findByCategoryProjection", r -> r.findByCategoryProjection("work"), "work"),
+                query("findByCreationDateAfter", r -> r.findByCreationDateAfter(START), START),
+                query("findByCreationDateBetween", r -> r.findByCreationDateBetween(START, END), START, END),
+                query("findRecentContacts", r -> r.findRecentContacts(START), START),
+                query("findActiveContactsByCategoryFirst",
+                        r -> r.findActiveContactsByCategoryFirst("work", PageRequest.of(0, 20)), "work", 21),
+                query("findActiveContactsByCategoryAfter",
+                        r -> r.findActiveContactsByCategoryAfter("work", END, 100L, PageRequest.of(0, 20)),
+                        "work", END, END, 100L, 21),
+                query("findByEmailDomain", r -> r.findByEmailDomain("example.com"), "example.com"),
+                query("findContactById", r -> r.findContactById(1L), 1L),
+                query("findDtosByCategory", r -> r.findDtosByCategory("work"), "work"),
+                query("findDtosByIsActive", r -> r.findDtosByIsActive(true), true),
+                query("findDtosByCategoryAndIsActive", r -> r.findDtosByCategoryAndIsActive("work", true),
+                        "work", true),
+                query("findDtosCreatedAfter", r -> r.findDtosCreatedAfter(START), START),
+                query("findDtosCreatedBetween", r -> r.findDtosCreatedBetween(START, END), START, END),
+                query("findDtosByCategories", r -> r.findDtosByCategories(List.of("work", "family")),
+                        "work", "family"),
+                query("findActiveDtosByCategoryNewestFirst",
+                        r -> r.findActiveDtosByCategoryNewestFirst("work"), "work"),
+                query("findRecentDtos", r -> r.findRecentDtos(START), START),
+                query("findDtosByEmailDomain", r -> r.findDtosByEmailDomain("example.com"), "example.com"),
+                query("findActiveDtosByCategory",
+                        r -> r.findActiveDtosByCategory("work", PageRequest.of(0, 20)), "work", 20)
+        );
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("indexedQueries")
+    void queryUsesAnIndex(String repositoryMethod, Consumer<ContactRepository> call, Object[] args) {
+        List<String> statements = CapturingStatementInspector.capture(() -> call.accept(contactRepository));
+
+        assertThat(statements).as("SQL generated by %s", repositoryMethod).isNotEmpty();
+        for (String sql : statements) {
+            // A page's count query binds a prefix of the arguments: the same filter, no limit
+            int parameters = (int) sql.chars().filter(c -> c == '?').count();
+            assertThat(parameters).as("parameters of %s: %s", repositoryMethod, sql).isLessThanOrEqualTo(args.length);
+            String plan = jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class,
+                    Arrays.copyOf(args, parameters));
+
+            assertThat(plan)
+                    .as("plan for %s:%n%s", repositoryMethod, plan)
+                    .doesNotContain("tableScan");
+        }
+    }
+
+    private static Arguments query(String repositoryMethod, Consumer<ContactRepository> call, Object... args) {
+        return arguments(repositoryMethod, call, args);
+    }
+}
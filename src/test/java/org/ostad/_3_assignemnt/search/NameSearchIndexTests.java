@@ -0,0 +1,137 @@
+package org.ostad._3_assignemnt.search;
+
+import org.junit.jupiter.api.Test;
+import org.ostad._3_assignemnt.dto.ContactDTO;
+import org.ostad._3_assignemnt.entity.Contact;
+import org.ostad._3_assignemnt.event.ContactWrite;
+import org.ostad._3_assignemnt.event.ContactsWrittenEvent;
+import org.ostad._3_assignemnt.repository.ContactRepository;
+import org.ostad._3_assignemnt.service.ContactService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The index against the database LIKE query it replaces: both trim and ignore case, only the index
+ * folds accents. The index is built at startup by WarmupRunner and kept current by write events.
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:namesearchdb")
+class NameSearchIndexTests {
+
+    @Autowired
+    private NameSearchIndex nameSearchIndex;
+
+    @Autowired
+    private ContactService contactService;
+
+    @Autowired
+    private ContactRepository contactRepository;
+
+    @Test
+    void foldsCaseAccentsAndSurroundingSpace() {
+        ContactDTO josephine = create("Joséphine", "Quillfeather", "index-josephine@example.com");
+
+        assertThat(nameSearchIndex.search("  JOSEPHINE ")).containsExactly(josephine.getId());
+        assertThat(nameSearchIndex.search("joséphine")).containsExactly(josephine.getId());
+        assertThat(nameSearchIndex.search("QUILLFEATHER")).containsExactly(josephine.getId());
+    }
+
+    @Test
+    void ranksExactThenPrefixThenWordPrefixThenSubstring() {
+        ContactDTO substring = create("Ann", "Mabernathy", "index-substring@example.com");
+        ContactDTO wordPrefix = create("Ann", "Van Bernathy", "index-word@example.com");
+        ContactDTO prefix = create("Ann", "Bernathyson", "index-prefix@example.com");
+        ContactDTO exact = create("Ann", "Bernathy", "index-exact@example.com");
+
+        assertThat(nameSearchIndex.search("bernathy")).containsExactly(
+                exact.getId(), prefix.getId(), wordPrefix.getId(), substring.getId());
+    }
+
+    @Test
+    void servesQueriesShorterThanATrigramAsWordPrefixes() {
+        ContactDTO name = create("Zqx", "Short", "index-short-1@example.com");
+        ContactDTO word = create("Ann", "Van Zqy", "index-short-2@example.com");
+        create("Ann", "Azqz", "index-short-3@example.com");
+
+        assertThat(nameSearchIndex.canServe(" ZQ ")).isTrue();
+        assertThat(nameSearchIndex.search(" ZQ ")).containsExactly(name.getId(), word.getId());
+        assertThat(nameSearchIndex.search("zqx")).containsExactly(name.getId());
+        assertThat(nameSearchIndex.canServe("   ")).isFalse();
+    }
+
+    @Test
+    void writesDeliveredOutOfOrderKeepTheNewestName() {
+        long id = 9_000_001L;
+        ContactDTO v0 = contact(id, "Ursula", "Outoforder", 0L);
+        ContactDTO v1 = contact(id, "Ursula", "Olderwrite", 1L);
+        ContactDTO v2 = contact(id, "Ursula", "Newerwrite", 2L);
+
+        nameSearchIndex.onContactsWritten(written(new ContactWrite(null, v0)));
+        nameSearchIndex.onContactsWritten(written(new ContactWrite(v1, v2)));
+        // The listener of the earlier commit runs last
+        nameSearchIndex.onContactsWritten(written(new ContactWrite(v0, v1)));
+
+        assertThat(nameSearchIndex.search("olderwrite")).isEmpty();
+        assertThat(nameSearchIndex.search("newerwrite")).containsExactly(id);
+    }
+
+    @Test
+    void lateWriteDoesNotBringBackADeletedContact() {
+        long id = 9_000_002L;
+        ContactDTO v0 = contact(id, "Tobias", "Tombstoned", 0L);
+        ContactDTO v1 = contact(id, "Tobias", "Tombstoned", 1L);
+
+        nameSearchIndex.onContactsWritten(written(new ContactWrite(null, v0)));
+        nameSearchIndex.onContactsWritten(written(new ContactWrite(v1, null)));
+        nameSearchIndex.onContactsWritten(written(new ContactWrite(v0, v1)));
+
+        // The create's listener can also run after the delete's
+        long created = 9_000_003L;
+        nameSearchIndex.onContactsWritten(written(new ContactWrite(contact(created, "Tobias", "Tombstoned", 0L), null)));
+        nameSearchIndex.onContactsWritten(written(new ContactWrite(null, contact(created, "Tobias", "Tombstoned", 0L))));
+
+        assertThat(nameSearchIndex.search("tombstoned")).isEmpty();
+    }
+
+    @Test
+    void followsUpdatesAndDeletes() {
+        ContactDTO contact = create("Percival", "Oldname", "index-update@example.com");
+        contact.setLastName("Newname");
+        contactService.updateContact(contact.getId(), contact, null);
+
+        assertThat(nameSearchIndex.search("oldname")).isEmpty();
+        assertThat(nameSearchIndex.search("newname")).containsExactly(contact.getId());
+
+        contactService.deleteContact(contact.getId());
+        assertThat(nameSearchIndex.search("percival")).isEmpty();
+    }
+
+    @Test
+    void databaseFallbackDoesNotFoldAccents() {
+        ContactDTO contact = create("Zoë", "Brightwater", "index-fallback@example.com");
+
+        assertThat(nameSearchIndex.search("zoe")).containsExactly(contact.getId());
+        assertThat(contactRepository.searchByName("zoe", Pageable.unpaged()))
+                .extracting(Contact::getId).doesNotContain(contact.getId());
+        assertThat(contactRepository.searchByName("ZOË", Pageable.unpaged()))
+                .extracting(Contact::getId).containsExactly(contact.getId());
+    }
+
+    private static ContactDTO contact(long id, String firstName, String lastName, long version) {
+        return new ContactDTO(id, firstName, lastName, "0123456789", firstName.toLowerCase() + id + "@example.com",
+                true, "work", null, version);
+    }
+
+    private static ContactsWrittenEvent written(ContactWrite write) {
+        return new ContactsWrittenEvent(List.of(write));
+    }
+
+    private ContactDTO create(String firstName, String lastName, String email) {
+        return contactService.createContact(
+                new ContactDTO(null, firstName, lastName, "0123456789", email, true, "work", null, null));
+    }
+}
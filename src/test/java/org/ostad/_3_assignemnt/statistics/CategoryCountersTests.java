@@ -0,0 +1,57 @@
+package org.ostad._3_assignemnt.statistics;
+
+import org.junit.jupiter.api.Test;
+import org.ostad._3_assignemnt.dto.ContactDTO;
+import org.ostad._3_assignemnt.event.ContactWrite;
+import org.ostad._3_assignemnt.event.ContactsWrittenEvent;
+import org.ostad._3_assignemnt.service.ContactService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:categorycountersdb")
+@RecordApplicationEvents
+class CategoryCountersTests {
+
+    @Autowired
+    private CategoryCounters categoryCounters;
+
+    @Autowired
+    private ContactService contactService;
+
+    @Autowired
+    private ApplicationEvents applicationEvents;
+
+    @Test
+    void listenerHeldBackAcrossARebuildDoesNotCountTwice() {
+        contactService.createContact(new ContactDTO(
+                null, "Ada", "Lovelace", "0123456789", "ada.counters@example.com", true, "counters", null, null));
+        ContactsWrittenEvent created = applicationEvents.stream(ContactsWrittenEvent.class).findFirst().orElseThrow();
+        assertThat(created.getChangeOffset()).isPositive();
+
+        // The snapshot already counts the create; its listener then runs once more after the swap,
+        // standing in for a listener that was held back until the rebuild finished
+        categoryCounters.rebuild();
+        categoryCounters.onContactsWritten(created);
+
+        assertThat(categoryCounters.count("counters")).isEqualTo(1);
+        assertThat(categoryCounters.activeCount("counters")).isEqualTo(1);
+    }
+
+    @Test
+    void writesWithoutAChangeOffsetAreStillApplied() {
+        categoryCounters.rebuild();
+        categoryCounters.onContactsWritten(new ContactsWrittenEvent(List.of(
+                new ContactWrite(null, new ContactDTO(
+                        9_000_100L, "Grace", "Hopper", "0123456789", "grace.counters@example.com", false,
+                        "offsetless", null, 0L)))));
+
+        assertThat(categoryCounters.count("offsetless")).isEqualTo(1);
+        assertThat(categoryCounters.activeCount("offsetless")).isZero();
+    }
+}